@@ -0,0 +1,91 @@
+package study.datajpa.benchmark;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import study.datajpa.entity.CoarseClock;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 감사 리스너를 켜고 끈 상태에서 배치 저장 처리량을 비교한다. 결과는 행 단위다.
+ * systemClock / coarseClock 은 감사 시각 한 건을 만드는 비용만 따로 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditingBenchmark {
+
+	static final int BATCH = 1000;
+
+	@Param({"true", "false"})
+	boolean audit;
+
+	ConfigurableApplicationContext context;
+	MemberRepository memberRepository;
+	TransactionTemplate transaction;
+	Clock systemClock;
+	CoarseClock coarseClock;
+
+	@Setup
+	public void setUp() {
+		context = BenchmarkContext.start("auditing-" + audit, "datajpa.audit.enabled=" + audit);
+		memberRepository = context.getBean(MemberRepository.class);
+		transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		systemClock = Clock.systemDefaultZone();
+		coarseClock = new CoarseClock(ZoneOffset.UTC, Duration.ofMillis(1));
+	}
+
+	@TearDown
+	public void tearDown() {
+		coarseClock.close();
+		context.close();
+	}
+
+	@Benchmark
+	public LocalDateTime systemClock() {
+		return LocalDateTime.now(systemClock);
+	}
+
+	@Benchmark
+	public LocalDateTime coarseClock() {
+		return LocalDateTime.now(coarseClock);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int batchInsert() {
+		return transaction.execute(status -> {
+			List<Member> members = new ArrayList<>(BATCH);
+			for (int i = 0; i < BATCH; i++) {
+				members.add(new Member("audit" + i, i % 100));
+			}
+			return memberRepository.saveAll(members).size();
+		});
+	}
+}
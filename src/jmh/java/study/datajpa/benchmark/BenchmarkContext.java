@@ -0,0 +1,58 @@
+package study.datajpa.benchmark;
+
+import static java.nio.charset.StandardCharsets.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import study.datajpa.SpringJpaApplication;
+import study.datajpa.service.MemberImportService;
+
+/**
+ * 벤치마크용 애플리케이션 컨텍스트. 내장 H2 메모리 DB 를 쓰고 SQL 로그를 끈다.
+ */
+final class BenchmarkContext {
+
+	private BenchmarkContext() {
+	}
+
+	static ConfigurableApplicationContext start(String database, String... properties) {
+		return application(database, properties)
+			.web(WebApplicationType.NONE)
+			.run();
+	}
+
+	static SpringApplicationBuilder application(String database, String... properties) {
+		List<String> all = new ArrayList<>(List.of(
+			"spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+			"datajpa.sql-log.enabled=false",
+			"logging.level.root=warn"));
+		all.addAll(Arrays.asList(properties));
+		return new SpringApplicationBuilder(SpringJpaApplication.class)
+			.properties(all.toArray(String[]::new));
+	}
+
+	/**
+	 * rows 명의 회원을 100 개 팀에 나누어 넣는다.
+	 */
+	static void seedMembers(ConfigurableApplicationContext context, int rows) {
+		StringBuilder csv = new StringBuilder();
+		for (int i = 0; i < rows; i++) {
+			csv.append("member").append(i).append(',').append(i % 100).append(",team").append(i % 100).append('\n');
+		}
+		try {
+			context.getBean(MemberImportService.class)
+				.importCsv(new ByteArrayInputStream(csv.toString().getBytes(UTF_8)));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
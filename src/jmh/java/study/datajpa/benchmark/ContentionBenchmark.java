@@ -0,0 +1,87 @@
+package study.datajpa.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.MemberService;
+
+/**
+ * 여러 스레드가 소수의 회원을 동시에 갱신할 때 낙관적 락(재시도)과 비관적 락의 처리량을 비교한다.
+ * hotRows 가 작을수록 충돌이 잦다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class ContentionBenchmark {
+
+	@Param({"1", "16", "256"})
+	int hotRows;
+
+	ConfigurableApplicationContext context;
+	MemberService memberService;
+	List<Long> ids;
+
+	@Setup
+	public void setUp() {
+		context = BenchmarkContext.start("contention-" + hotRows);
+		memberService = context.getBean(MemberService.class);
+		ids = context.getBean(MemberRepository.class)
+			.saveAll(IntStream.range(0, hotRows)
+				.mapToObj(i -> new Member("hot" + i, 0))
+				.collect(Collectors.toList()))
+			.stream()
+			.map(Member::getId)
+			.collect(Collectors.toList());
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	/**
+	 * 재시도를 모두 소진한 호출도 처리량에 포함되므로 -1 을 반환해 구분만 한다.
+	 */
+	@Benchmark
+	public int optimistic() {
+		try {
+			return memberService.increaseAge(pick());
+		} catch (OptimisticLockingFailureException e) {
+			return -1;
+		}
+	}
+
+	@Benchmark
+	public int pessimistic() {
+		return memberService.increaseAgePessimistic(pick());
+	}
+
+	private Long pick() {
+		return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+	}
+}
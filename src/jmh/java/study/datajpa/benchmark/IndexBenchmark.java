@@ -0,0 +1,91 @@
+package study.datajpa.benchmark;
+
+import static org.springframework.data.domain.Sort.Direction.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 마이그레이션의 member 인덱스가 있을 때와 지웠을 때 주요 조회를 비교한다.
+ * 시작할 때 각 쿼리의 EXPLAIN 을 출력하므로 인덱스 탐색(seek)인지 tableScan 인지 함께 확인할 수 있다.
+ * ./gradlew jmh -Pjmh.includes=IndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexBenchmark {
+
+	private static final long ID_OFFSET = 1_000_000_000L;
+
+	@Param({"1000000"})
+	int rows;
+
+	@Param({"true", "false"})
+	boolean indexed;
+
+	ConfigurableApplicationContext context;
+	MemberRepository memberRepository;
+
+	@Setup
+	public void setUp() {
+		context = BenchmarkContext.start("index-" + rows + "-" + indexed);
+		memberRepository = context.getBean(MemberRepository.class);
+		JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+		jdbc.update("insert into member (member_id, username, age, version) "
+			+ "select ? + x, 'member' || x, mod(x, 100), 0 from system_range(1, ?)", ID_OFFSET, rows);
+		if (!indexed) {
+			jdbc.execute("drop index idx_member_username");
+			jdbc.execute("drop index idx_member_age_username");
+		}
+		jdbc.execute("analyze");
+
+		explain(jdbc, "select * from member where username = 'member1'");
+		explain(jdbc, "select * from member where age = 7 order by username desc limit 10");
+		explain(jdbc, "select count(*) from member where age = 7");
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<Member> findByUsername() {
+		return memberRepository.findByUsername("member" + (ThreadLocalRandom.current().nextInt(rows) + 1));
+	}
+
+	@Benchmark
+	public Page<Member> findByAgeOrderByUsername() {
+		return memberRepository.findByAge(ThreadLocalRandom.current().nextInt(100),
+			PageRequest.of(0, 10, Sort.by(DESC, "username")));
+	}
+
+	private void explain(JdbcTemplate jdbc, String sql) {
+		System.out.println("[indexed=" + indexed + "] " + jdbc.queryForObject("explain " + sql, String.class));
+	}
+}
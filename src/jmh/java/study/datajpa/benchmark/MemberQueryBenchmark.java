@@ -0,0 +1,112 @@
+package study.datajpa.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberProjection;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.NestedClosedProjections;
+import study.datajpa.repository.UsernameOnly;
+
+/**
+ * 같은 "회원 + 팀 이름" 조회를 MemberRepository 의 여러 방식으로 실행해 비교한다.
+ * 처리량과 지연 분포(SampleTime)를 함께 측정하고, gc 프로파일러로 할당량을 본다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberQueryBenchmark {
+
+	@Param({"1000", "10000"})
+	int rows;
+
+	ConfigurableApplicationContext context;
+	MemberRepository memberRepository;
+	TransactionTemplate readOnly;
+
+	@Setup
+	public void setUp() {
+		context = BenchmarkContext.start("member-query-" + rows);
+		BenchmarkContext.seedMembers(context, rows);
+		memberRepository = context.getBean(MemberRepository.class);
+		readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		readOnly.setReadOnly(true);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<Member> fetchJoin() {
+		return readOnly.execute(status -> memberRepository.findMemberFetchJoin());
+	}
+
+	@Benchmark
+	public List<Member> entityGraph() {
+		return readOnly.execute(status -> memberRepository.findAll());
+	}
+
+	@Benchmark
+	public List<MemberDto> dtoConstructor() {
+		return readOnly.execute(status -> memberRepository.findMemberDto());
+	}
+
+	@Benchmark
+	public List<String> nestedClosedProjection() {
+		return readOnly.execute(status -> memberRepository.findAllProjectedBy(NestedClosedProjections.class)
+			.stream()
+			.map(member -> member.getUsername() + member.getTeam().getName())
+			.toList());
+	}
+
+	@Benchmark
+	public List<String> openProjection() {
+		return readOnly.execute(status -> memberRepository.findAllProjectedBy(UsernameOnly.class)
+			.stream()
+			.map(UsernameOnly::getUsername)
+			.toList());
+	}
+
+	@Benchmark
+	public List<String> compiledOpenProjection() {
+		return readOnly.execute(status -> memberRepository.findAllCompiledProjections(UsernameOnly.class)
+			.stream()
+			.map(UsernameOnly::getUsername)
+			.toList());
+	}
+
+	@Benchmark
+	public List<MemberProjection> nativeProjection() {
+		return readOnly.execute(status -> memberRepository.findByNativeProjection(PageRequest.of(0, rows))
+			.getContent());
+	}
+
+	@Benchmark
+	public List<Member> custom() {
+		return readOnly.execute(status -> memberRepository.findMemberCustom());
+	}
+}
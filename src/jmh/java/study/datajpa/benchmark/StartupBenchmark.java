@@ -0,0 +1,71 @@
+package study.datajpa.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 애플리케이션을 새 DB 로 띄운 뒤 첫 조회 요청(GET /members)이 200 을 받을 때까지의 시간.
+ * 기본 설정과 fast-start 프로파일을 비교한다. 매 측정마다 JVM 안에서 컨텍스트를 새로 띄우므로
+ * 클래스 로딩 비용은 첫 회에만 포함되고, 이후 값은 컨텍스트 시작 비용의 회귀를 보는 용도다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(3)
+public class StartupBenchmark {
+
+	private static final AtomicInteger DATABASES = new AtomicInteger();
+
+	@Param({"default", "fast-start"})
+	String profile;
+
+	HttpClient client = HttpClient.newHttpClient();
+	ConfigurableApplicationContext context;
+
+	@Benchmark
+	public int timeToFirstRequest() throws InterruptedException {
+		context = BenchmarkContext.application("startup-" + DATABASES.incrementAndGet(), "server.port=0")
+			.profiles(profile)
+			.run();
+		int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/members?size=1")).build();
+		// run() 은 웹 서버가 포트를 연 뒤에 돌아오므로 바로 요청할 수 있다.
+		try {
+			HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+			if (response.statusCode() != 200) {
+				throw new IllegalStateException("first request returned " + response.statusCode());
+			}
+			return response.statusCode();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@TearDown(Level.Invocation)
+	public void tearDown() {
+		context.close();
+	}
+}
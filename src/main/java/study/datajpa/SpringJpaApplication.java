@@ -1,14 +1,23 @@
 package study.datajpa;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
+import study.datajpa.entity.CoarseClock;
+
 @EnableJpaAuditing
 @SpringBootApplication
 public class SpringJpaApplication {
@@ -19,7 +28,26 @@ public class SpringJpaApplication {
 
 	@Bean
 	public AuditorAware<String> auditorProvider() {
-		return () -> Optional.of(UUID.randomUUID().toString());
+		// UUID.randomUUID() 는 SecureRandom 을 거치므로 감사자 식별용으로는 ThreadLocalRandom 이면 충분하다.
+		// 버전(4)과 variant(IETF) 비트는 randomUUID() 와 같게 맞춘다.
+		return () -> {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			long msb = random.nextLong() & ~0xF000L | 0x4000L;
+			long lsb = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+			return Optional.of(new UUID(msb, lsb).toString());
+		};
+	}
+
+	/**
+	 * 감사 시각은 밀리초 단위 정밀도면 충분하므로 기본은 CoarseClock 이다. resolution 을 0 으로 두면 시스템 시계를 쓴다.
+	 */
+	@Bean
+	public Clock clock(@Value("${datajpa.audit.clock-resolution:1ms}") Duration resolution) {
+		if (resolution.isZero()) {
+			return Clock.systemDefaultZone();
+		}
+		ZoneOffset offset = ZoneId.systemDefault().getRules().getOffset(Instant.now());
+		return new CoarseClock(offset, resolution);
 	}
 
 }
@@ -0,0 +1,89 @@
+package study.datajpa.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import study.datajpa.entity.MemberChangedEvent;
+
+/**
+ * 페이징 count 쿼리 결과 캐시. 쿼리와 파라미터를 키로 하고,
+ * 회원이 변경되면 전부 무효화하며 staleness 가 지난 값은 다시 조회한다.
+ * 무효화는 변경한 트랜잭션이 커밋된 뒤 트랜잭션당 한 번만 한다. 커밋 전에 무효화하면 그 사이 다시 읽은
+ * 이전 count 가 staleness 동안 남는다.
+ */
+@Component
+public class CountCache {
+
+	private final long stalenessNanos;
+	private final int maxEntries;
+	private final ConcurrentMap<Key, Entry> counts = new ConcurrentHashMap<>();
+	private final AtomicLong generation = new AtomicLong();
+
+	public CountCache(@Value("${datajpa.count-cache.staleness:5s}") Duration staleness,
+		@Value("${datajpa.count-cache.max-entries:1000}") int maxEntries) {
+		this.stalenessNanos = staleness.toNanos();
+		this.maxEntries = maxEntries;
+	}
+
+	public long get(String query, List<?> params, LongSupplier loader) {
+		Key key = new Key(query, params);
+		Entry entry = counts.get(key);
+		long now = System.nanoTime();
+		if (entry != null && now - entry.loadedAt() < stalenessNanos) {
+			return entry.count();
+		}
+
+		long loadedGeneration = generation.get();
+		long count = loader.getAsLong();
+		// 조회 중에 무효화되었다면 이미 오래된 값이므로 저장하지 않는다.
+		if (loadedGeneration == generation.get()) {
+			if (counts.size() >= maxEntries) {
+				counts.clear();
+			}
+			counts.put(key, new Entry(count, now));
+		}
+		return count;
+	}
+
+	public void invalidate() {
+		generation.incrementAndGet();
+		counts.clear();
+	}
+
+	@EventListener
+	public void onMemberChanged(MemberChangedEvent event) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			invalidate();
+			return;
+		}
+		if (TransactionSynchronizationManager.hasResource(this)) {
+			return;
+		}
+		TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				TransactionSynchronizationManager.unbindResourceIfPossible(CountCache.this);
+				if (status == STATUS_COMMITTED) {
+					invalidate();
+				}
+			}
+		});
+	}
+
+	private record Key(String query, List<?> params) {
+	}
+
+	private record Entry(long count, long loadedAt) {
+	}
+}
@@ -0,0 +1,58 @@
+package study.datajpa.cache;
+
+import java.time.Duration;
+
+import javax.persistence.EntityNotFoundException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.MemberChangedEvent;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 자주 조회되는 회원 단건 조회 앞단의 캐시. 반환된 MemberDto 는 공유되므로 수정하면 안 된다.
+ * 회원이 저장, 삭제되거나 벌크 update 가 커밋되면 무효화한다.
+ * 무효화 직후 다시 읽을 때 아직 복제되지 않은 replica 값을 캐시하지 않도록, 읽기 전용이 아닌
+ * 새 트랜잭션에서 읽어 replica 라우팅이 켜져 있어도 primary 에서 읽는다.
+ */
+@Component
+public class MemberNearCache {
+
+	private final MemberRepository memberRepository;
+	private final TransactionTemplate primary;
+	private final NearCache<Long, MemberDto> cache;
+
+	public MemberNearCache(MemberRepository memberRepository, PlatformTransactionManager transactionManager,
+		@Value("${datajpa.near-cache.max-size:10000}") int maxSize,
+		@Value("${datajpa.near-cache.ttl:30s}") Duration ttl) {
+		this.memberRepository = memberRepository;
+		this.primary = new TransactionTemplate(transactionManager);
+		this.primary.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.cache = new NearCache<>(maxSize, ttl);
+	}
+
+	public MemberDto get(Long id) {
+		return cache.get(id, this::load);
+	}
+
+	private MemberDto load(Long id) {
+		return primary.execute(status -> memberRepository.findById(id)
+			.map(MemberDto::new)
+			.orElseThrow(EntityNotFoundException::new));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onMemberChanged(MemberChangedEvent event) {
+		if (event.isBulk()) {
+			cache.invalidateAll();
+		} else {
+			cache.invalidate(event.getMemberId());
+		}
+	}
+}
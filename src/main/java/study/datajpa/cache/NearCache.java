@@ -0,0 +1,119 @@
+package study.datajpa.cache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * 크기 제한이 있는 동시성 캐시.
+ * 같은 키에 대한 동시 miss 는 하나의 로더 호출을 공유하고, 항목마다 만료 시간을 가진다.
+ * 크기 제한과 만료는 Caffeine 이 맡으므로 miss 마다 전체 항목을 훑지 않는다.
+ */
+public class NearCache<K, V> {
+
+	private final Duration defaultTtl;
+	private final Cache<K, Entry<V>> cache;
+	private final ConcurrentMap<K, Entry<V>> entries;
+
+	public NearCache(int maxSize, Duration defaultTtl) {
+		this.defaultTtl = defaultTtl;
+		this.cache = Caffeine.newBuilder()
+			.maximumSize(maxSize)
+			.expireAfter(new EntryExpiry<K, V>())
+			.executor(Runnable::run)
+			.build();
+		this.entries = cache.asMap();
+	}
+
+	public V get(K key, Function<K, V> loader) {
+		return get(key, loader, defaultTtl);
+	}
+
+	public V get(K key, Function<K, V> loader, Duration ttl) {
+		Entry<V> created = new Entry<>(new CompletableFuture<>(), ttl.toNanos());
+		Entry<V> current = entries.computeIfAbsent(key, k -> created);
+
+		if (current == created) {
+			return load(key, loader, created);
+		}
+		return current.value();
+	}
+
+	public void invalidate(K key) {
+		cache.invalidate(key);
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	public long size() {
+		cache.cleanUp();
+		return cache.estimatedSize();
+	}
+
+	private V load(K key, Function<K, V> loader, Entry<V> entry) {
+		try {
+			V value = loader.apply(key);
+			entry.future.complete(value);
+			return value;
+		} catch (Throwable e) {
+			// 실패한 결과는 캐시하지 않는다. Error 라도 future 를 완료해야 대기 중인 호출이 멈추지 않는다.
+			entries.remove(key, entry);
+			entry.future.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	private static class Entry<V> {
+
+		private final CompletableFuture<V> future;
+		private final long ttlNanos;
+
+		Entry(CompletableFuture<V> future, long ttlNanos) {
+			this.future = future;
+			this.ttlNanos = ttlNanos;
+		}
+
+		V value() {
+			try {
+				return future.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				if (e.getCause() instanceof Error) {
+					throw (Error) e.getCause();
+				}
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * 항목이 만들어질 때 정한 ttl 로 만료한다. 읽어도 만료 시간은 늘어나지 않는다.
+	 */
+	private static class EntryExpiry<K, V> implements Expiry<K, Entry<V>> {
+
+		@Override
+		public long expireAfterCreate(K key, Entry<V> entry, long currentTime) {
+			return entry.ttlNanos;
+		}
+
+		@Override
+		public long expireAfterUpdate(K key, Entry<V> entry, long currentTime, long currentDuration) {
+			return entry.ttlNanos;
+		}
+
+		@Override
+		public long expireAfterRead(K key, Entry<V> entry, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
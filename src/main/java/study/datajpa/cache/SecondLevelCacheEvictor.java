@@ -0,0 +1,47 @@
+package study.datajpa.cache;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import study.datajpa.entity.Member;
+import study.datajpa.entity.MemberChangedEvent;
+
+/**
+ * 벌크 update 가 커밋되면 2차 캐시를 정리한다. 벌크 update 는 캐시된 회원 엔티티와
+ * Team.members 를 그대로 남겨두고, 어느 팀이 바뀌었는지도 알 수 없기 때문이다.
+ * 한 건씩 바뀌는 회원은 hibernate.cache.auto_evict_collection_cache 가 이전 팀과 새 팀의
+ * members 항목만 지운다(Member.team 이 실제로 바뀐 경우에만).
+ * EntityManagerFactory 가 백그라운드에서 만들어질 수 있으므로 Cache 는 처음 정리할 때 얻는다.
+ */
+@Component
+public class SecondLevelCacheEvictor {
+
+	private static final String TEAM_MEMBERS_REGION = "study.datajpa.entity.Team.members";
+
+	private final EntityManagerFactory emf;
+	private volatile Cache cache;
+
+	public SecondLevelCacheEvictor(EntityManagerFactory emf) {
+		this.emf = emf;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true, condition = "#event.bulk")
+	public void onMemberChanged(MemberChangedEvent event) {
+		Cache cache = cache();
+		cache.evictCollectionData(TEAM_MEMBERS_REGION);
+		cache.evictEntityData(Member.class);
+	}
+
+	private Cache cache() {
+		Cache resolved = cache;
+		if (resolved == null) {
+			resolved = emf.unwrap(SessionFactory.class).getCache();
+			cache = resolved;
+		}
+		return resolved;
+	}
+}
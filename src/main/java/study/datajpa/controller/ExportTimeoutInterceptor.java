@@ -0,0 +1,31 @@
+package study.datajpa.controller;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+/**
+ * 전체 내보내기는 MVC 비동기 기본 타임아웃(Tomcat 기준 약 30초)보다 오래 걸리므로
+ * 해당 요청에만 datajpa.export.timeout 을 적용한다. 요청마다 WebAsyncManager 에 등록해서 쓴다.
+ */
+@Component
+public class ExportTimeoutInterceptor implements CallableProcessingInterceptor {
+
+	private final long timeoutMillis;
+
+	public ExportTimeoutInterceptor(@Value("${datajpa.export.timeout:2h}") Duration timeout) {
+		this.timeoutMillis = timeout.toMillis();
+	}
+
+	@Override
+	public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+		if (request instanceof AsyncWebRequest) {
+			((AsyncWebRequest) request).setTimeout(timeoutMillis);
+		}
+	}
+}
@@ -1,48 +1,188 @@
 package study.datajpa.controller;
 
-import javax.annotation.PostConstruct;
-import javax.persistence.EntityNotFoundException;
+import static org.springframework.http.HttpStatus.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import study.datajpa.cache.MemberNearCache;
+import study.datajpa.dto.BulkUpdateResult;
+import study.datajpa.dto.CursorSlice;
+import study.datajpa.dto.ImportResult;
+import study.datajpa.dto.MemberCursor;
+import study.datajpa.dto.MemberDetailDto;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.MemberAsyncQueryService;
+import study.datajpa.service.MemberBulkUpdateService;
+import study.datajpa.service.MemberExportService;
+import study.datajpa.service.MemberImportService;
+import study.datajpa.service.MemberQueryService;
 
+@Slf4j
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+	private static final int MAX_KEYSET_SIZE = 2000;
+	private static final String EXPORT_TIMEOUT = "exportTimeout";
+	private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
 	private final MemberRepository memberRepository;
+	private final MemberNearCache memberNearCache;
+	private final MemberImportService memberImportService;
+	private final MemberExportService memberExportService;
+	private final MemberBulkUpdateService memberBulkUpdateService;
+	private final MemberAsyncQueryService memberAsyncQueryService;
+	private final MemberQueryService memberQueryService;
+	private final ExportTimeoutInterceptor exportTimeoutInterceptor;
 
 	@GetMapping("/members/{id}")
 	public String findMember(@PathVariable("id") Long id) {
-		Member member = memberRepository.findById(id)
-			.orElseThrow(EntityNotFoundException::new);
+		MemberDto member = memberNearCache.get(id);
 		return member.getUsername( );
 	}
 
+	/**
+	 * 회원과 팀 통계를 QueryExecutor 에서 동시에 조회한다. 요청 스레드는 조회를 기다리지 않고 반환된다.
+	 */
+	@GetMapping("/members/{id}/detail")
+	public CompletableFuture<MemberDetailDto> findMemberDetail(@PathVariable("id") Long id) {
+		return memberAsyncQueryService.findMemberDto(id)
+			.thenCombine(memberAsyncQueryService.findTeamStats(id), (member, team) -> new MemberDetailDto(
+				member.orElseThrow(() -> new ResponseStatusException(NOT_FOUND)), team.orElse(null)));
+	}
+
+	@ExceptionHandler(TaskRejectedException.class)
+	public ResponseEntity<Void> queryExecutorSaturated() {
+		return ResponseEntity.status(SERVICE_UNAVAILABLE)
+			.header(HttpHeaders.RETRY_AFTER, "1")
+			.build();
+	}
+
 	@GetMapping("/members2/{id}")
-	public String findMember2(@PageableDefault(size = 5) @PathVariable("id") Member member) {
+	public String findMember2(@PageableDefault(size = 5) @PathVariable("id") MemberDto member) {
 		return member.getUsername( );
 	}
 
 	@GetMapping("/members")
 	public Page<MemberDto> list(Pageable pageable) {
-		return memberRepository.findAll(pageable)
-			.map(MemberDto::new);
+		return memberQueryService.findMemberDtoPage(pageable);
+	}
+
+	/**
+	 * 키셋 페이징. sort 는 id 또는 username 이며 next 토큰을 cursor 로 넘기면 다음 페이지를 조회한다.
+	 * username 순에서는 username 이 없는 회원이 빠진다.
+	 */
+	@GetMapping("/members/keyset")
+	public CursorSlice<MemberDto> keyset(@RequestParam(value = "cursor", required = false) String cursor,
+		@RequestParam(value = "sort", defaultValue = "id") String sort,
+		@RequestParam(value = "size", defaultValue = "10") int size) {
+		int limit = Math.max(1, Math.min(size, MAX_KEYSET_SIZE));
+		Pageable first = PageRequest.ofSize(limit + 1);
+		MemberCursor last = decodeCursor(cursor);
+
+		List<Member> rows;
+		CursorSlice<Member> slice;
+		switch (sort) {
+			case "id":
+				rows = memberRepository.findByIdGreaterThanOrderByIdAsc(last == null ? 0L : last.getId(), first);
+				slice = CursorSlice.of(rows, limit, member -> MemberCursor.byId(member).encode());
+				break;
+			case "username":
+				if (last != null && !last.hasUsername()) {
+					throw new ResponseStatusException(BAD_REQUEST, "cursor was not issued for username order");
+				}
+				rows = last == null
+					? memberRepository.findByUsernameNotNullOrderByUsernameAscIdAsc(first)
+					: memberRepository.findNextByUsername(last.getUsername(), last.getId(), first);
+				slice = CursorSlice.of(rows, limit, member -> MemberCursor.byUsername(member).encode());
+				break;
+			default:
+				throw new ResponseStatusException(BAD_REQUEST, "unsupported sort: " + sort);
+		}
+		return slice.map(MemberDto::new);
+	}
+
+	private MemberCursor decodeCursor(String cursor) {
+		if (cursor == null || cursor.isEmpty()) {
+			return null;
+		}
+		try {
+			return MemberCursor.decode(cursor);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(BAD_REQUEST, e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * 청크 단위로 커밋하므로 전체가 원자적이지 않다. 잘못된 줄이 있으면 400 을 돌려주고,
+	 * 메시지에 이미 커밋된 건수를 담는다. 그 건수 이후의 행부터 다시 보내면 된다.
+	 */
+	@PostMapping(value = "/members/import", consumes = "text/csv")
+	public ImportResult importCsv(InputStream body) throws IOException {
+		try {
+			return memberImportService.importCsv(body);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(BAD_REQUEST, e.getMessage(), e);
+		}
+	}
+
+	@PostMapping(value = "/members/import", consumes = "application/x-ndjson")
+	public ImportResult importNdjson(InputStream body) throws IOException {
+		try {
+			return memberImportService.importNdjson(body);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(BAD_REQUEST, e.getMessage(), e);
+		}
+	}
+
+	@GetMapping(value = "/members/export", produces = "application/x-ndjson")
+	public ResponseEntity<StreamingResponseBody> export(HttpServletRequest request) {
+		WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(EXPORT_TIMEOUT, exportTimeoutInterceptor);
+		return ResponseEntity.ok()
+			.contentType(NDJSON)
+			.body(memberExportService::writeNdjson);
 	}
 
-	@PostConstruct
-	public void init() {
-		for (int i = 0; i < 100; i++) {
-			memberRepository.save(new Member("user" + i, i));
+	/**
+	 * 중단되었다면 같은 jobId, age, chunkSize 로 다시 호출하면 남은 구간만 실행한다.
+	 * parallelism 이 커넥션 풀 크기에서 headroom 을 뺀 값보다 크면 400 을 돌려준다.
+	 */
+	@PostMapping("/members/bulk-age-plus")
+	public BulkUpdateResult bulkAgePlus(@RequestParam("age") int age, @RequestParam("jobId") String jobId,
+		@RequestParam(value = "chunkSize", defaultValue = "10000") int chunkSize,
+		@RequestParam(value = "parallelism", defaultValue = "1") int parallelism) {
+		try {
+			return memberBulkUpdateService.bulkAgePlus(jobId, age, chunkSize, parallelism,
+				progress -> log.info("bulkAgePlus progress {}", progress));
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(BAD_REQUEST, e.getMessage(), e);
 		}
 	}
 }
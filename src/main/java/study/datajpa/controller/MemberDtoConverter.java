@@ -0,0 +1,23 @@
+package study.datajpa.controller;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import study.datajpa.cache.MemberNearCache;
+import study.datajpa.dto.MemberDto;
+
+/**
+ * @PathVariable 로 받은 회원 id 를 캐시를 거쳐 MemberDto 로 변환한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberDtoConverter implements Converter<String, MemberDto> {
+
+	private final MemberNearCache memberNearCache;
+
+	@Override
+	public MemberDto convert(String source) {
+		return memberNearCache.get(Long.valueOf(source));
+	}
+}
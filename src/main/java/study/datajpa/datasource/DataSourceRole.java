@@ -0,0 +1,5 @@
+package study.datajpa.datasource;
+
+public enum DataSourceRole {
+	PRIMARY, REPLICA
+}
@@ -0,0 +1,25 @@
+package study.datajpa.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 읽기 전용 트랜잭션은 replica 로, 나머지는 primary 로 보낸다.
+ * 트랜잭션이 시작된 뒤에 커넥션을 얻어야 하므로 LazyConnectionDataSourceProxy 로 감싸서 쓴다.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+	private final ReplicaLagMonitor lagMonitor;
+
+	public ReadWriteRoutingDataSource(ReplicaLagMonitor lagMonitor) {
+		this.lagMonitor = lagMonitor;
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && lagMonitor.isAvailable()) {
+			return DataSourceRole.REPLICA;
+		}
+		return DataSourceRole.PRIMARY;
+	}
+}
@@ -0,0 +1,48 @@
+package study.datajpa.datasource;
+
+import java.time.Duration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * lag-query 로 복제 지연(초)을 주기적으로 확인한다. 지연이 max-lag 을 넘거나
+ * 조회에 실패하면 읽기 전용 트랜잭션도 primary 로 보낸다.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+	private final JdbcTemplate replica;
+	private final String lagQuery;
+	private final double maxLagSeconds;
+
+	private volatile boolean available = true;
+
+	public ReplicaLagMonitor(JdbcTemplate replica, String lagQuery, Duration maxLag) {
+		this.replica = replica;
+		this.lagQuery = lagQuery;
+		this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+	}
+
+	public boolean isAvailable() {
+		return available;
+	}
+
+	@Scheduled(fixedDelayString = "${datajpa.datasource.replica.lag-check-interval:5s}")
+	public void check() {
+		boolean next;
+		try {
+			Number lag = replica.queryForObject(lagQuery, Number.class);
+			next = lag != null && lag.doubleValue() <= maxLagSeconds;
+		} catch (RuntimeException e) {
+			log.debug("replica lag check failed", e);
+			next = false;
+		}
+		if (next != available) {
+			log.warn("replica {}", next ? "is back in rotation" : "is lagging or unreachable, routing reads to primary");
+		}
+		available = next;
+	}
+}
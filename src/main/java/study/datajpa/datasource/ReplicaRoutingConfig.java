@@ -0,0 +1,92 @@
+package study.datajpa.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * datajpa.datasource.replica.enabled 이면 spring.datasource 를 primary 로,
+ * datajpa.datasource.replica 를 replica 로 하는 라우팅 dataSource 를 만든다.
+ * 각 풀은 따로 설정되므로 읽기 부하가 primary 커넥션 수에 묶이지 않는다.
+ * primary 풀은 spring.datasource.hikari.* 를 그대로 따른다.
+ * replica 는 primary 의 복제본이어야 하며, 기동할 때 두 DB 의 Flyway 스키마 버전이 같은지 확인한다.
+ * 복제 지연을 초 단위로 돌려주는 datajpa.datasource.replica.lag-query 는 데이터베이스마다 다르므로 반드시 지정해야 한다.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "datajpa.datasource.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+			.type(HikariDataSource.class)
+			.build();
+		dataSource.setPoolName("primary");
+		return dataSource;
+	}
+
+	@Bean
+	public HikariDataSource replicaDataSource(@Value("${datajpa.datasource.replica.url}") String url,
+		@Value("${datajpa.datasource.replica.username:}") String username,
+		@Value("${datajpa.datasource.replica.password:}") String password,
+		@Value("${datajpa.datasource.replica.maximum-pool-size:10}") int maximumPoolSize) {
+		HikariDataSource dataSource = DataSourceBuilder.create()
+			.type(HikariDataSource.class)
+			.url(url)
+			.username(username)
+			.password(password)
+			.build();
+		dataSource.setPoolName("replica");
+		dataSource.setMaximumPoolSize(maximumPoolSize);
+		dataSource.setReadOnly(true);
+		return dataSource;
+	}
+
+	@Bean
+	public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+		@Value("${datajpa.datasource.replica.lag-query:}") String lagQuery,
+		@Value("${datajpa.datasource.replica.max-lag:5s}") Duration maxLag) {
+		if (!StringUtils.hasText(lagQuery)) {
+			throw new IllegalStateException("datajpa.datasource.replica.lag-query is required when replica routing "
+				+ "is enabled; it must return the replica's replication lag in seconds");
+		}
+		return new ReplicaLagMonitor(new JdbcTemplate(replica), lagQuery, maxLag);
+	}
+
+	@Bean
+	public ReplicaSchemaVerifier replicaSchemaVerifier(Flyway flyway,
+		@Qualifier("replicaDataSource") DataSource replica) {
+		return new ReplicaSchemaVerifier(flyway, replica);
+	}
+
+	@Bean
+	@Primary
+	public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+		@Qualifier("replicaDataSource") DataSource replica, ReplicaLagMonitor lagMonitor) {
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(lagMonitor);
+		routing.setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+		routing.setDefaultTargetDataSource(primary);
+		routing.afterPropertiesSet();
+		return new LazyConnectionDataSourceProxy(routing);
+	}
+}
@@ -0,0 +1,42 @@
+package study.datajpa.datasource;
+
+import java.util.Objects;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+/**
+ * replica 는 primary 의 복제본이어야 한다. primary 의 마이그레이션이 끝난 뒤
+ * 두 DB 의 flyway_schema_history 최신 버전이 같은지 확인하고, 다르면 기동을 멈춘다.
+ */
+public class ReplicaSchemaVerifier implements SmartInitializingSingleton {
+
+	private final Flyway primary;
+	private final DataSource replica;
+
+	public ReplicaSchemaVerifier(Flyway primary, DataSource replica) {
+		this.primary = primary;
+		this.replica = replica;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		String primaryVersion = version(primary);
+		String replicaVersion = version(Flyway.configure()
+			.configuration(primary.getConfiguration())
+			.dataSource(replica)
+			.load());
+		if (!Objects.equals(primaryVersion, replicaVersion)) {
+			throw new IllegalStateException("replica schema version " + replicaVersion + " does not match primary "
+				+ primaryVersion + "; datajpa.datasource.replica.url must point to a copy of the primary");
+		}
+	}
+
+	private static String version(Flyway flyway) {
+		MigrationInfo current = flyway.info().current();
+		return current == null ? null : current.getVersion().getVersion();
+	}
+}
@@ -0,0 +1,30 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 청크 단위 벌크 update 의 진행 상황. 진행 중 콜백과 최종 결과에 함께 쓰인다.
+ */
+@Getter
+@ToString
+public class BulkUpdateResult {
+
+	private final String jobId;
+	private final int totalChunks;
+	private final int completedChunks;
+	private final int skippedChunks;
+	private final long updatedRows;
+
+	public BulkUpdateResult(String jobId, int totalChunks, int completedChunks, int skippedChunks, long updatedRows) {
+		this.jobId = jobId;
+		this.totalChunks = totalChunks;
+		this.completedChunks = completedChunks;
+		this.skippedChunks = skippedChunks;
+		this.updatedRows = updatedRows;
+	}
+
+	public boolean isDone() {
+		return completedChunks + skippedChunks == totalChunks;
+	}
+}
@@ -0,0 +1,41 @@
+package study.datajpa.dto;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+
+/**
+ * 키셋 페이징 결과. next 가 null 이면 마지막 페이지다.
+ */
+@Getter
+public class CursorSlice<T> {
+
+	private final List<T> content;
+	private final String next;
+
+	public CursorSlice(List<T> content, String next) {
+		this.content = content;
+		this.next = next;
+	}
+
+	/**
+	 * size + 1 건을 조회한 결과로 다음 페이지 존재 여부를 판단한다.
+	 */
+	public static <T> CursorSlice<T> of(List<T> rows, int size, Function<T, String> cursor) {
+		if (rows.size() <= size) {
+			return new CursorSlice<>(rows, null);
+		}
+		List<T> content = rows.subList(0, size);
+		return new CursorSlice<>(content, cursor.apply(content.get(size - 1)));
+	}
+
+	public boolean hasNext() {
+		return next != null;
+	}
+
+	public <R> CursorSlice<R> map(Function<T, R> mapper) {
+		return new CursorSlice<>(content.stream().map(mapper).collect(Collectors.toList()), next);
+	}
+}
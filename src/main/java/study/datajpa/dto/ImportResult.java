@@ -0,0 +1,17 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+
+@Getter
+public class ImportResult {
+
+	private final long imported;
+	private final int teams;
+	private final long elapsedMillis;
+
+	public ImportResult(long imported, int teams, long elapsedMillis) {
+		this.imported = imported;
+		this.teams = teams;
+		this.elapsedMillis = elapsedMillis;
+	}
+}
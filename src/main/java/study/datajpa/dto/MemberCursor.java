@@ -0,0 +1,54 @@
+package study.datajpa.dto;
+
+import static java.nio.charset.StandardCharsets.*;
+
+import java.util.Base64;
+
+import lombok.Getter;
+import study.datajpa.entity.Member;
+
+/**
+ * 키셋 페이징에서 마지막으로 읽은 회원의 위치.
+ * username 이 null 이면 member_id 만으로 정렬된 커서다.
+ */
+@Getter
+public class MemberCursor {
+
+	private static final String SEPARATOR = ":";
+
+	private final Long id;
+	private final String username;
+
+	public MemberCursor(Long id, String username) {
+		this.id = id;
+		this.username = username;
+	}
+
+	public static MemberCursor byId(Member member) {
+		return new MemberCursor(member.getId(), null);
+	}
+
+	public static MemberCursor byUsername(Member member) {
+		return new MemberCursor(member.getId(), member.getUsername());
+	}
+
+	public boolean hasUsername() {
+		return username != null;
+	}
+
+	public String encode() {
+		String raw = username == null ? String.valueOf(id) : id + SEPARATOR + username;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(UTF_8));
+	}
+
+	public static MemberCursor decode(String token) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), UTF_8);
+			String[] parts = raw.split(SEPARATOR, 2);
+			Long id = Long.valueOf(parts[0]);
+			return new MemberCursor(id, parts.length > 1 ? parts[1] : null);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("invalid cursor: " + token, e);
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+
+@Getter
+public class MemberDetailDto {
+
+	private final MemberDto member;
+	private final TeamStatsDto team;
+
+	public MemberDetailDto(MemberDto member, TeamStatsDto team) {
+		this.member = member;
+		this.team = team;
+	}
+}
@@ -0,0 +1,19 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+
+@Getter
+public class TeamStatsDto {
+
+	private final Long teamId;
+	private final String teamName;
+	private final Long memberCount;
+	private final Double averageAge;
+
+	public TeamStatsDto(Long teamId, String teamName, Long memberCount, Double averageAge) {
+		this.teamId = teamId;
+		this.teamName = teamName;
+		this.memberCount = memberCount;
+		this.averageAge = averageAge;
+	}
+}
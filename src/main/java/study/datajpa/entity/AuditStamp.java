@@ -0,0 +1,20 @@
+package study.datajpa.entity;
+
+import java.time.LocalDateTime;
+
+import lombok.Getter;
+
+/**
+ * 엔티티 하나에 기록할 감사자와 시각.
+ */
+@Getter
+public class AuditStamp {
+
+	private final String auditor;
+	private final LocalDateTime now;
+
+	public AuditStamp(String auditor, LocalDateTime now) {
+		this.auditor = auditor;
+		this.now = now;
+	}
+}
@@ -0,0 +1,47 @@
+package study.datajpa.entity;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 감사자는 트랜잭션당 한 번만 구하고, 시각은 콜백마다 clock 에서 읽는다.
+ * 긴 트랜잭션에서도 각 엔티티는 실제로 저장되거나 수정된 시각을 갖는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditStampResolver {
+
+	private final AuditorAware<String> auditorAware;
+	private final Clock clock;
+
+	public AuditStamp current() {
+		return new AuditStamp(auditor().orElse(null), LocalDateTime.now(clock));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Optional<String> auditor() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return auditorAware.getCurrentAuditor();
+		}
+		Optional<String> auditor = (Optional<String>) TransactionSynchronizationManager.getResource(this);
+		if (auditor == null) {
+			auditor = auditorAware.getCurrentAuditor();
+			TransactionSynchronizationManager.bindResource(this, auditor);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(AuditStampResolver.this);
+				}
+			});
+		}
+		return auditor;
+	}
+}
@@ -0,0 +1,11 @@
+package study.datajpa.entity;
+
+/**
+ * AuditingListener 가 리플렉션 없이 감사 필드를 채우기 위한 콜백.
+ */
+interface Audited {
+
+	void markCreated(AuditStamp stamp);
+
+	void markModified(AuditStamp stamp);
+}
@@ -0,0 +1,35 @@
+package study.datajpa.entity;
+
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * AuditingEntityListener 대신 쓰는 감사 리스너. 애노테이션을 리플렉션으로 찾지 않고
+ * Audited 콜백으로 값을 넣는다. Hibernate 가 SpringBeanContainer 를 통해 생성한다.
+ */
+public class AuditingListener {
+
+	private final AuditStampResolver resolver;
+	private final boolean enabled;
+
+	public AuditingListener(AuditStampResolver resolver, @Value("${datajpa.audit.enabled:true}") boolean enabled) {
+		this.resolver = resolver;
+		this.enabled = enabled;
+	}
+
+	@PrePersist
+	public void prePersist(Object entity) {
+		if (enabled && entity instanceof Audited) {
+			((Audited) entity).markCreated(resolver.current());
+		}
+	}
+
+	@PreUpdate
+	public void preUpdate(Object entity) {
+		if (enabled && entity instanceof Audited) {
+			((Audited) entity).markModified(resolver.current());
+		}
+	}
+}
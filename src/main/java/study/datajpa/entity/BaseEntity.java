@@ -6,30 +6,33 @@ import javax.persistence.Column;
 import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
 
-import org.springframework.data.annotation.CreatedBy;
-import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.annotation.LastModifiedBy;
-import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
-
 import lombok.Getter;
 
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners(AuditingListener.class)
 @MappedSuperclass
 @Getter
-public class BaseEntity {
+public abstract class BaseEntity<ID> extends PersistableEntity<ID> implements Audited {
 
-	@CreatedDate
 	@Column(updatable = false)
 	private LocalDateTime createdDate;
 
-	@LastModifiedDate
 	private LocalDateTime lastModifiedDate;
 
-	@CreatedBy
 	@Column(updatable = false)
 	private String createdBy;
 
-	@LastModifiedBy
 	private String lastModifiedBy;
+
+	@Override
+	public void markCreated(AuditStamp stamp) {
+		createdDate = stamp.getNow();
+		createdBy = stamp.getAuditor();
+		markModified(stamp);
+	}
+
+	@Override
+	public void markModified(AuditStamp stamp) {
+		lastModifiedDate = stamp.getNow();
+		lastModifiedBy = stamp.getAuditor();
+	}
 }
@@ -0,0 +1,58 @@
+package study.datajpa.entity;
+
+import static lombok.AccessLevel.*;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 청크 단위 벌크 update 에서 완료된 구간. 청크의 update 와 같은 트랜잭션에서 저장되므로
+ * 중단 후 같은 jobId 로 다시 실행하면 이미 반영된 구간은 건너뛴다.
+ * age 는 재실행 조건이 처음과 같은지 확인하는 데 쓴다. 컬럼이 추가되기 전의 기록은 null 이다.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"job_id", "range_start"}))
+@Getter
+@NoArgsConstructor(access = PROTECTED)
+@ToString(of = {"jobId", "age", "rangeStart", "rangeEnd", "updatedRows"})
+public class BulkUpdateCheckpoint {
+
+	@Id
+	@GeneratedValue(generator = "bulk_update_checkpoint_seq")
+	@GenericGenerator(name = "bulk_update_checkpoint_seq", strategy = "study.datajpa.entity.PooledSequenceGenerator",
+		parameters = @Parameter(name = "sequence_name", value = "bulk_update_checkpoint_seq"))
+	@Column(name = "checkpoint_id")
+	private Long id;
+
+	@Column(name = "job_id", nullable = false)
+	private String jobId;
+
+	private Integer age;
+
+	@Column(name = "range_start", nullable = false)
+	private Long rangeStart;
+
+	@Column(name = "range_end", nullable = false)
+	private Long rangeEnd;
+
+	private int updatedRows;
+
+	public BulkUpdateCheckpoint(String jobId, Integer age, Long rangeStart, Long rangeEnd, int updatedRows) {
+		this.jobId = jobId;
+		this.age = age;
+		this.rangeStart = rangeStart;
+		this.rangeEnd = rangeEnd;
+		this.updatedRows = updatedRows;
+	}
+}
@@ -0,0 +1,64 @@
+package study.datajpa.entity;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * resolution 마다 백그라운드 스레드가 갱신한 Instant 를 돌려주는 시계.
+ * 호출 쪽에서는 시스템 시각 조회도, Instant 생성도 하지 않는다.
+ * 고정 오프셋만 받으므로 타임존 규칙 조회도 없다. 대신 기동 뒤의 서머타임 전환은 따라가지 않는다.
+ */
+public class CoarseClock extends Clock implements AutoCloseable {
+
+	private final ZoneOffset zone;
+	private final ScheduledExecutorService ticker;
+	private volatile Instant now = Instant.now();
+
+	public CoarseClock(ZoneOffset zone, Duration resolution) {
+		if (resolution.isZero() || resolution.isNegative()) {
+			throw new IllegalArgumentException("resolution must be positive: " + resolution);
+		}
+		this.zone = zone;
+		this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "coarse-clock");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long nanos = resolution.toNanos();
+		ticker.scheduleAtFixedRate(() -> now = Instant.now(), nanos, nanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public ZoneId getZone() {
+		return zone;
+	}
+
+	/**
+	 * 다른 zone 이 필요하면 정밀도를 낮출 이유가 없으므로 시스템 시계를 돌려준다.
+	 */
+	@Override
+	public Clock withZone(ZoneId zone) {
+		return zone.equals(this.zone) ? this : Clock.system(zone);
+	}
+
+	@Override
+	public Instant instant() {
+		return now;
+	}
+
+	@Override
+	public long millis() {
+		return now.toEpochMilli();
+	}
+
+	@Override
+	public void close() {
+		ticker.shutdownNow();
+	}
+}
@@ -1,26 +1,32 @@
 package study.datajpa.entity;
 
+import static lombok.AccessLevel.*;
+
 import java.time.LocalDateTime;
 
 import javax.persistence.Entity;
 import javax.persistence.EntityListeners;
-import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 
 import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.domain.Persistable;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 @Entity
 @EntityListeners(AuditingEntityListener.class)
 @Getter
-public class Item {
+@NoArgsConstructor(access = PROTECTED)
+public class Item extends PersistableEntity<String> {
 
-	@Id @GeneratedValue
-	private Long id;
+	@Id
+	private String id;
 
 	@CreatedDate
 	private LocalDateTime createdDate;
+
+	public Item(String id) {
+		this.id = id;
+	}
 }
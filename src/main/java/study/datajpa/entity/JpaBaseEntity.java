@@ -3,29 +3,28 @@ package study.datajpa.entity;
 import java.time.LocalDateTime;
 
 import javax.persistence.Column;
+import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
-import javax.persistence.PrePersist;
-import javax.persistence.PreUpdate;
 
 import lombok.Getter;
 
+@EntityListeners(AuditingListener.class)
 @MappedSuperclass
 @Getter
-public class JpaBaseEntity {
+public abstract class JpaBaseEntity<ID> extends PersistableEntity<ID> implements Audited {
 
 	@Column(updatable = false)
 	private LocalDateTime createdDate;
 	private LocalDateTime updatedDate;
 
-	@PrePersist
-	public void prePersist() {
-		LocalDateTime now = LocalDateTime.now();
-		createdDate = now;
-		updatedDate = now;
+	@Override
+	public void markCreated(AuditStamp stamp) {
+		createdDate = stamp.getNow();
+		updatedDate = stamp.getNow();
 	}
 
-	@PreUpdate
-	public void preUpdate() {
-		updatedDate = LocalDateTime.now();
+	@Override
+	public void markModified(AuditStamp stamp) {
+		updatedDate = stamp.getNow();
 	}
 }
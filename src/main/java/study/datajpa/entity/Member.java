@@ -3,13 +3,22 @@ package study.datajpa.entity;
 import static java.util.Objects.*;
 import static javax.persistence.FetchType.*;
 import static lombok.AccessLevel.*;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.*;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.Version;
+
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -17,17 +26,27 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
+@Cacheable
+@Cache(usage = READ_WRITE)
+@EntityListeners(MemberChangeListener.class)
 @Getter @Setter
 @NoArgsConstructor(access = PROTECTED)
 @ToString(of = {"id", "username", "age"})
-public class Member extends BaseEntity {
+public class Member extends BaseEntity<Long> {
 
-	@Id @GeneratedValue
+	@Id
+	@GeneratedValue(generator = "member_seq")
+	@GenericGenerator(name = "member_seq", strategy = "study.datajpa.entity.PooledSequenceGenerator",
+		parameters = @Parameter(name = "sequence_name", value = "member_seq"))
 	@Column(name = "member_id")
 	private Long id;
 	private String username;
 	private int age;
 
+	@Version
+	@Setter(NONE)
+	private Long version;
+
 	@ManyToOne(fetch = LAZY)
 	@JoinColumn(name = "team_id")
 	private Team team;
@@ -49,8 +68,12 @@ public class Member extends BaseEntity {
 		}
 	}
 
+	/**
+	 * 이전 팀의 members 는 이미 로딩된 경우에만 제거한다. 로딩되지 않았다면 FK 만 바꾸면 되고,
+	 * 새 팀의 members 는 inverse bag 이라 로딩하지 않고 add 가 큐에 쌓인다. 팀 크기와 무관하게 O(1) 이다.
+	 */
 	public void changeTeam(Team team) {
-		if (nonNull(this.team)) {
+		if (nonNull(this.team) && Hibernate.isInitialized(this.team) && Hibernate.isInitialized(this.team.getMembers())) {
 			this.team.getMembers().remove(this);
 		}
 		this.team = team;
@@ -0,0 +1,25 @@
+package study.datajpa.entity;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Hibernate 가 SpringBeanContainer 를 통해 생성하므로 스프링 빈을 주입받을 수 있다.
+ */
+@RequiredArgsConstructor
+public class MemberChangeListener {
+
+	private final ApplicationEventPublisher publisher;
+
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	public void onChange(Member member) {
+		publisher.publishEvent(MemberChangedEvent.of(member.getId()));
+	}
+}
@@ -0,0 +1,29 @@
+package study.datajpa.entity;
+
+import lombok.Getter;
+
+/**
+ * 회원 데이터가 변경되었음을 알리는 이벤트.
+ * memberId 가 null 이면 벌크 연산처럼 변경된 회원을 특정할 수 없는 경우다.
+ */
+@Getter
+public class MemberChangedEvent {
+
+	private final Long memberId;
+
+	private MemberChangedEvent(Long memberId) {
+		this.memberId = memberId;
+	}
+
+	public static MemberChangedEvent of(Long memberId) {
+		return new MemberChangedEvent(memberId);
+	}
+
+	public static MemberChangedEvent bulk() {
+		return new MemberChangedEvent(null);
+	}
+
+	public boolean isBulk() {
+		return memberId == null;
+	}
+}
@@ -0,0 +1,30 @@
+package study.datajpa.entity;
+
+import javax.persistence.MappedSuperclass;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
+
+/**
+ * 새 엔티티 여부를 식별자 대신 플래그로 판단한다.
+ * 식별자를 직접 넣어도 save() 가 merge 의 SELECT 없이 바로 persist 한다.
+ */
+@MappedSuperclass
+public abstract class PersistableEntity<ID> implements Persistable<ID> {
+
+	@Transient
+	private boolean isNew = true;
+
+	@Override
+	public boolean isNew() {
+		return isNew;
+	}
+
+	@PostPersist
+	@PostLoad
+	void markNotNew() {
+		isNew = false;
+	}
+}
@@ -0,0 +1,36 @@
+package study.datajpa.entity;
+
+import java.util.Map;
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * 엔티티마다 전용 시퀀스를 쓰고 allocation 크기만큼 id 를 메모리에서 할당하는 생성기.
+ * increment_size 와 optimizer 는 @Parameter 로 지정하지 않으면
+ * spring.jpa.properties.datajpa.id.* 설정을 따른다.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+	public static final String INCREMENT_SIZE_SETTING = "datajpa.id.increment_size";
+	public static final String OPTIMIZER_SETTING = "datajpa.id.optimizer";
+
+	private static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+	@Override
+	public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+		Map<?, ?> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+		params.putIfAbsent(INCREMENT_PARAM,
+			String.valueOf(ConfigurationHelper.getInt(INCREMENT_SIZE_SETTING, settings, DEFAULT_ALLOCATION_SIZE)));
+		params.putIfAbsent(OPT_PARAM,
+			ConfigurationHelper.getString(OPTIMIZER_SETTING, settings,
+				StandardOptimizerDescriptor.POOLED_LO.getExternalName()));
+		super.configure(type, params, serviceRegistry);
+	}
+}
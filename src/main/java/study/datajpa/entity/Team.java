@@ -1,15 +1,22 @@
 package study.datajpa.entity;
 
 import static lombok.AccessLevel.*;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.*;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
+import javax.persistence.Version;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -18,16 +25,26 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
+@Cacheable
+@Cache(usage = READ_WRITE)
 @Getter @Setter
 @NoArgsConstructor(access = PROTECTED)
 @ToString(of = {"id", "name"})
-public class Team {
+public class Team extends PersistableEntity<Long> {
 
-	@Id @GeneratedValue
+	@Id
+	@GeneratedValue(generator = "team_seq")
+	@GenericGenerator(name = "team_seq", strategy = "study.datajpa.entity.PooledSequenceGenerator",
+		parameters = @Parameter(name = "sequence_name", value = "team_seq"))
 	@Column(name = "team_id")
 	private Long id;
 	private String name;
 
+	@Version
+	@Setter(NONE)
+	private Long version;
+
+	@Cache(usage = READ_WRITE)
 	@OneToMany(mappedBy = "team")
 	private List<Member> members = new ArrayList<>();
 
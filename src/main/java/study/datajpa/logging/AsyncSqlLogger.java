@@ -0,0 +1,143 @@
+package study.datajpa.logging;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.hibernate.engine.jdbc.internal.FormatStyle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/**
+ * show_sql 대신 쓰는 SQL 로그. 요청 스레드는 샘플링 여부만 정하고 기록을 링 버퍼에 넣으며,
+ * 포맷팅과 출력은 백그라운드 스레드가 한다. 느린 쿼리는 샘플링과 관계없이 항상 남긴다.
+ * 버퍼가 가득 차면 가장 오래된 기록을 버린다.
+ */
+@Component
+@ConditionalOnProperty(name = "datajpa.sql-log.enabled", havingValue = "true", matchIfMissing = true)
+public class AsyncSqlLogger implements QueryExecutionListener {
+
+	private static final Logger log = LoggerFactory.getLogger("study.datajpa.sql");
+
+	private final double sampleRate;
+	private final long slowThresholdMillis;
+	private final boolean format;
+	private final boolean includeParameters;
+	private final BlockingQueue<SqlLogEntry> buffer;
+	private final AtomicLong dropped = new AtomicLong();
+	private final Thread writer = new Thread(this::drain, "sql-log-writer");
+
+	public AsyncSqlLogger(@Value("${datajpa.sql-log.sample-rate:0.01}") double sampleRate,
+		@Value("${datajpa.sql-log.slow-threshold:200ms}") Duration slowThreshold,
+		@Value("${datajpa.sql-log.buffer-size:8192}") int bufferSize,
+		@Value("${datajpa.sql-log.format:true}") boolean format,
+		@Value("${datajpa.sql-log.include-parameters:true}") boolean includeParameters) {
+		this.sampleRate = sampleRate;
+		this.slowThresholdMillis = slowThreshold.toMillis();
+		this.format = format;
+		this.includeParameters = includeParameters;
+		this.buffer = new ArrayBlockingQueue<>(bufferSize);
+	}
+
+	@PostConstruct
+	public void start() {
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		writer.interrupt();
+		writer.join(TimeUnit.SECONDS.toMillis(5));
+	}
+
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	public int getPending() {
+		return buffer.size();
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		boolean slow = execInfo.getElapsedTime() >= slowThresholdMillis;
+		if (!slow && execInfo.isSuccess() && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+			return;
+		}
+		String thread = Thread.currentThread().getName();
+		for (QueryInfo queryInfo : queryInfoList) {
+			enqueue(new SqlLogEntry(queryInfo.getQuery(), parameters(queryInfo), execInfo.getElapsedTime(), slow,
+				execInfo.isSuccess(), thread));
+		}
+	}
+
+	private List<List<String>> parameters(QueryInfo queryInfo) {
+		if (!includeParameters) {
+			return Collections.emptyList();
+		}
+		List<List<String>> parameters = new ArrayList<>();
+		for (List<ParameterSetOperation> operations : queryInfo.getParametersList()) {
+			List<String> values = new ArrayList<>(operations.size());
+			for (ParameterSetOperation operation : operations) {
+				Object[] args = operation.getArgs();
+				values.add(args.length > 1 ? String.valueOf(args[1]) : null);
+			}
+			parameters.add(values);
+		}
+		return parameters;
+	}
+
+	private void enqueue(SqlLogEntry entry) {
+		while (!buffer.offer(entry)) {
+			if (buffer.poll() != null) {
+				dropped.incrementAndGet();
+			}
+		}
+	}
+
+	private void drain() {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				write(buffer.take());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		SqlLogEntry entry;
+		while ((entry = buffer.poll()) != null) {
+			write(entry);
+		}
+	}
+
+	private void write(SqlLogEntry entry) {
+		String sql = format ? FormatStyle.BASIC.getFormatter().format(entry.getSql()) : entry.getSql();
+		if (entry.isSlow() || !entry.isSuccess()) {
+			log.warn("[{}] {}ms{} {} params={}", entry.getThread(), entry.getElapsedMillis(),
+				entry.isSuccess() ? " slow" : " failed", sql, entry.getParameters());
+		} else {
+			log.info("[{}] {}ms {} params={}", entry.getThread(), entry.getElapsedMillis(), sql, entry.getParameters());
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package study.datajpa.logging;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * 애플리케이션이 사용하는 dataSource 빈을 AsyncSqlLogger 가 붙은 프록시로 감싼다.
+ */
+@Component
+@ConditionalOnProperty(name = "datajpa.sql-log.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlLogDataSourcePostProcessor implements BeanPostProcessor {
+
+	private static final String DATA_SOURCE = "dataSource";
+
+	private final ObjectProvider<AsyncSqlLogger> sqlLogger;
+
+	public SqlLogDataSourcePostProcessor(ObjectProvider<AsyncSqlLogger> sqlLogger) {
+		this.sqlLogger = sqlLogger;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (!DATA_SOURCE.equals(beanName) || !(bean instanceof DataSource) || bean instanceof ProxyDataSource) {
+			return bean;
+		}
+		return ProxyDataSourceBuilder.create((DataSource) bean)
+			.name(DATA_SOURCE)
+			.listener(sqlLogger.getObject())
+			.build();
+	}
+}
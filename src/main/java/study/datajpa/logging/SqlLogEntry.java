@@ -0,0 +1,29 @@
+package study.datajpa.logging;
+
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * 요청 스레드에서 만들어 로그 스레드로 넘기는 SQL 실행 기록. 파라미터는 문자열로 복사해 둔다.
+ */
+@Getter
+public class SqlLogEntry {
+
+	private final String sql;
+	private final List<List<String>> parameters;
+	private final long elapsedMillis;
+	private final boolean slow;
+	private final boolean success;
+	private final String thread;
+
+	public SqlLogEntry(String sql, List<List<String>> parameters, long elapsedMillis, boolean slow, boolean success,
+		String thread) {
+		this.sql = sql;
+		this.parameters = parameters;
+		this.elapsedMillis = elapsedMillis;
+		this.slow = slow;
+		this.success = success;
+		this.thread = thread;
+	}
+}
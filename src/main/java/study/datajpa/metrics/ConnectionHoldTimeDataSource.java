@@ -0,0 +1,86 @@
+package study.datajpa.metrics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 커넥션을 얻은 뒤 close 할 때까지의 시간을 datasource.connection.hold 로 기록한다.
+ * 요청 스레드에서 반납되면 매핑된 URL 패턴을, 아니면 none 을 endpoint 태그로 붙인다.
+ */
+public class ConnectionHoldTimeDataSource extends DelegatingDataSource {
+
+	private static final String NONE = "none";
+
+	private final MeterRegistry registry;
+
+	public ConnectionHoldTimeDataSource(DataSource target, MeterRegistry registry) {
+		super(target);
+		this.registry = registry;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return timed(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return timed(super.getConnection(username, password));
+	}
+
+	private Connection timed(Connection connection) {
+		long acquiredAt = System.nanoTime();
+		boolean[] closed = {false};
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+			(proxy, method, args) -> {
+				switch (method.getName()) {
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					default:
+						break;
+				}
+				if ("close".equals(method.getName()) && !closed[0]) {
+					closed[0] = true;
+					record(System.nanoTime() - acquiredAt);
+				}
+				try {
+					return method.invoke(connection, args);
+				} catch (InvocationTargetException e) {
+					throw e.getTargetException();
+				}
+			});
+	}
+
+	private void record(long nanos) {
+		Timer.builder("datasource.connection.hold")
+			.tag("endpoint", endpoint())
+			.publishPercentileHistogram()
+			.register(registry)
+			.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	private static String endpoint() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes == null) {
+			return NONE;
+		}
+		Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+			RequestAttributes.SCOPE_REQUEST);
+		return pattern == null ? NONE : pattern.toString();
+	}
+}
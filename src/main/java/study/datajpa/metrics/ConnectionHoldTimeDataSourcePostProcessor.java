@@ -0,0 +1,33 @@
+package study.datajpa.metrics;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 애플리케이션이 사용하는 dataSource 빈에 커넥션 점유 시간 측정을 붙인다.
+ */
+@Component
+public class ConnectionHoldTimeDataSourcePostProcessor implements BeanPostProcessor {
+
+	private static final String DATA_SOURCE = "dataSource";
+
+	private final ObjectProvider<MeterRegistry> registry;
+
+	public ConnectionHoldTimeDataSourcePostProcessor(ObjectProvider<MeterRegistry> registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (!DATA_SOURCE.equals(beanName) || !(bean instanceof DataSource)
+			|| bean instanceof ConnectionHoldTimeDataSource) {
+			return bean;
+		}
+		return new ConnectionHoldTimeDataSource((DataSource) bean, registry.getObject());
+	}
+}
@@ -0,0 +1,16 @@
+package study.datajpa.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * hibernate.session_factory.statement_inspector 로 등록한다.
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+	@Override
+	public String inspect(String sql) {
+		StatementCounter.increment();
+		ObservedStatements.record(sql);
+		return sql;
+	}
+}
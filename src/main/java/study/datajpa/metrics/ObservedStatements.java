@@ -0,0 +1,43 @@
+package study.datajpa.metrics;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 실행된 select 문을 중복 없이 모은다. 파생 쿼리처럼 실행해 봐야 SQL 을 알 수 있는 쿼리를
+ * QueryPlanVerifier 가 검사할 수 있게 한다. enable() 하기 전에는 아무것도 모으지 않는다.
+ * Hibernate 가 클래스 이름으로 만드는 CountingStatementInspector 에서 기록하므로 빈이 아닌 프로세스 전역 상태다.
+ * 테스트는 reset() 으로 이전 테스트의 기록을 지운다.
+ */
+public final class ObservedStatements {
+
+	private static final int MAX_STATEMENTS = 1000;
+	private static final Set<String> STATEMENTS = ConcurrentHashMap.newKeySet();
+
+	private static volatile boolean enabled;
+
+	private ObservedStatements() {
+	}
+
+	public static void enable() {
+		enabled = true;
+	}
+
+	/**
+	 * 모은 문장을 지운다. enable() 상태는 켠 컴포넌트의 것이므로 그대로 둔다.
+	 */
+	public static void reset() {
+		STATEMENTS.clear();
+	}
+
+	public static List<String> snapshot() {
+		return List.copyOf(STATEMENTS);
+	}
+
+	static void record(String sql) {
+		if (enabled && STATEMENTS.size() < MAX_STATEMENTS && sql.regionMatches(true, 0, "select", 0, 6)) {
+			STATEMENTS.add(sql);
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package study.datajpa.metrics;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamJpaRepository;
+import study.datajpa.repository.TeamRepository;
+
+/**
+ * 리포지토리 메서드별 실행 시간, SQL 문 수, 반환 행 수를 기록한다.
+ * 지연 로딩처럼 메서드 밖에서 발생하는 SQL 은 요청 단위 지표(RequestStatementMetricsFilter)에 잡힌다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+	private static final List<Class<?>> REPOSITORIES = List.of(
+		MemberRepository.class, TeamRepository.class, MemberJpaRepository.class, TeamJpaRepository.class);
+
+	private final MeterRegistry registry;
+
+	@Around("execution(public * *(..)) && !execution(* java.lang.Object.*(..))"
+		+ " && (target(study.datajpa.repository.MemberRepository)"
+		+ " || target(study.datajpa.repository.TeamRepository)"
+		+ " || target(study.datajpa.repository.MemberJpaRepository)"
+		+ " || target(study.datajpa.repository.TeamJpaRepository))")
+	public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+		String repository = repositoryName(joinPoint.getTarget());
+		String method = joinPoint.getSignature().getName();
+		long statements = StatementCounter.current();
+		long started = System.nanoTime();
+		String exception = "none";
+		try {
+			Object result = joinPoint.proceed();
+			DistributionSummary.builder("repository.rows")
+				.tags("repository", repository, "method", method)
+				.register(registry)
+				.record(rows(result));
+			return result;
+		} catch (Throwable e) {
+			exception = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			Timer.builder("repository.invocations")
+				.tags("repository", repository, "method", method, "exception", exception)
+				.publishPercentileHistogram()
+				.register(registry)
+				.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+			DistributionSummary.builder("repository.statements")
+				.tags("repository", repository, "method", method)
+				.register(registry)
+				.record(StatementCounter.current() - statements);
+		}
+	}
+
+	private static String repositoryName(Object target) {
+		for (Class<?> repository : REPOSITORIES) {
+			if (repository.isInstance(target)) {
+				return repository.getSimpleName();
+			}
+		}
+		return target.getClass().getSimpleName();
+	}
+
+	private static long rows(Object result) {
+		if (result == null) {
+			return 0;
+		}
+		if (result instanceof Collection) {
+			return ((Collection<?>) result).size();
+		}
+		if (result instanceof Slice) {
+			return ((Slice<?>) result).getNumberOfElements();
+		}
+		if (result instanceof Optional) {
+			return ((Optional<?>) result).isPresent() ? 1 : 0;
+		}
+		return 1;
+	}
+}
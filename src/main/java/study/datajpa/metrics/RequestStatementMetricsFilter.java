@@ -0,0 +1,55 @@
+package study.datajpa.metrics;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * HTTP 요청 하나가 실행한 SQL 문 수를 기록하고, 임계값을 넘으면 N+1 의심으로 경고한다.
+ * 비동기로 처리되는 응답(StreamingResponseBody, CompletableFuture)은 요청 스레드 밖에서 실행되므로 포함되지 않는다.
+ */
+@Slf4j
+@Component
+public class RequestStatementMetricsFilter extends OncePerRequestFilter {
+
+	private final MeterRegistry registry;
+	private final long threshold;
+
+	public RequestStatementMetricsFilter(MeterRegistry registry,
+		@Value("${datajpa.metrics.n-plus-one-threshold:20}") long threshold) {
+		this.registry = registry;
+		this.threshold = threshold;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+		throws ServletException, IOException {
+		long before = StatementCounter.current();
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			long statements = StatementCounter.current() - before;
+			Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+			String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+			DistributionSummary.builder("http.server.requests.statements")
+				.tags("method", request.getMethod(), "uri", uri)
+				.register(registry)
+				.record(statements);
+			if (statements > threshold) {
+				log.warn("possible N+1: {} {} issued {} statements", request.getMethod(), uri, statements);
+			}
+		}
+	}
+}
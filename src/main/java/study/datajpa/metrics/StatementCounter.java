@@ -0,0 +1,21 @@
+package study.datajpa.metrics;
+
+/**
+ * 스레드별로 Hibernate 가 준비한 SQL 문 수를 센다.
+ * 값은 계속 증가하기만 하므로 측정 구간 앞뒤의 차이로 문장 수를 구한다.
+ */
+public final class StatementCounter {
+
+	private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+	private StatementCounter() {
+	}
+
+	public static long current() {
+		return COUNT.get()[0];
+	}
+
+	static void increment() {
+		COUNT.get()[0]++;
+	}
+}
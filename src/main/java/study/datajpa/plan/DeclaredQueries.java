@@ -0,0 +1,70 @@
+package study.datajpa.plan;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.util.StringUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 리포지토리에 선언된 @Query(value, countQuery)를 SQL 로 바꿔 모은다.
+ * JPQL 은 Hibernate 쿼리 플랜 캐시를 거쳐 변환하므로 호출하면 플랜 캐시도 채워진다.
+ */
+@Slf4j
+final class DeclaredQueries {
+
+	private DeclaredQueries() {
+	}
+
+	/**
+	 * @return "리포지토리.메서드" -> SQL. 변환할 수 없는 쿼리는 경고만 남기고 뺀다.
+	 */
+	static Map<String, String> collect(Repositories repositories, EntityManagerFactory emf) {
+		SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+		Map<String, String> queries = new LinkedHashMap<>();
+		for (Class<?> domainType : repositories) {
+			RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+			for (Method method : information.getQueryMethods()) {
+				Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+				if (query == null) {
+					continue;
+				}
+				String source = information.getRepositoryInterface().getSimpleName() + "." + method.getName();
+				add(queries, source, query.value(), query.nativeQuery(), sessionFactory);
+				add(queries, source + "(count)", query.countQuery(), query.nativeQuery(), sessionFactory);
+			}
+		}
+		return queries;
+	}
+
+	private static void add(Map<String, String> queries, String source, String query, boolean nativeQuery,
+		SessionFactoryImplementor sessionFactory) {
+		if (!StringUtils.hasText(query)) {
+			return;
+		}
+		if (nativeQuery) {
+			queries.put(source, query);
+			return;
+		}
+		try {
+			String[] sql = sessionFactory.getQueryPlanCache()
+				.getHQLQueryPlan(query, false, Collections.emptyMap())
+				.getSqlStrings();
+			for (int i = 0; i < sql.length; i++) {
+				queries.put(sql.length == 1 ? source : source + "#" + i, sql[i]);
+			}
+		} catch (RuntimeException e) {
+			log.warn("cannot translate {}: {}", source, e.getMessage());
+		}
+	}
+}
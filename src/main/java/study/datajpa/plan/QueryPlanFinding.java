@@ -0,0 +1,37 @@
+package study.datajpa.plan;
+
+import lombok.Getter;
+
+@Getter
+public class QueryPlanFinding {
+
+	public enum Kind {
+		/** 조인 조건이 없는 조인(카티전 곱) */
+		CARTESIAN_JOIN,
+		/** 조건이 있지만 인덱스를 쓰지 못하는 테이블 스캔 */
+		UNINDEXED_PREDICATE,
+		/** 조건 없는 전체 스캔. 의도한 것일 수 있어 위반으로 보지 않는다. */
+		FULL_SCAN
+	}
+
+	private final Kind kind;
+	private final String source;
+	private final String sql;
+	private final String detail;
+
+	public QueryPlanFinding(Kind kind, String source, String sql, String detail) {
+		this.kind = kind;
+		this.source = source;
+		this.sql = sql;
+		this.detail = detail;
+	}
+
+	public boolean isViolation() {
+		return kind != Kind.FULL_SCAN;
+	}
+
+	@Override
+	public String toString() {
+		return kind + " " + source + ": " + detail + "\n  " + sql;
+	}
+}
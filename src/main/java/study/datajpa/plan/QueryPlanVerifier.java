@@ -0,0 +1,207 @@
+package study.datajpa.plan;
+
+import static java.util.stream.Collectors.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+import study.datajpa.metrics.ObservedStatements;
+import study.datajpa.plan.QueryPlanFinding.Kind;
+
+/**
+ * 리포지토리의 @Query 를 SQL 로 바꿔 EXPLAIN 하고 조인 조건 누락, 인덱스를 못 쓰는 조건, 전체 스캔을 보고한다.
+ * 파생 쿼리는 실행되어야 SQL 이 정해지므로 실행된 select 문(ObservedStatements)을 종료 시점에 같은 방식으로 검사한다.
+ * EXPLAIN 결과 해석은 H2 기준이며 다른 데이터베이스에서는 조인 조건 검사만 한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "datajpa.query-verifier.enabled", havingValue = "true")
+public class QueryPlanVerifier implements ApplicationRunner {
+
+	private static final Pattern TABLE_SCAN = Pattern.compile("/\\* ([\\w.\"]+)\\.tableScan \\*/");
+	private static final Set<String> JOIN_STOP = Set.of("join", "where", "group", "order", "having", "union",
+		"left", "right", "inner", "cross", "full", "outer", "limit", "offset", "fetch", "for");
+
+	private final ApplicationContext context;
+	private final EntityManagerFactory emf;
+	private final DataSource dataSource;
+	private final boolean failOnViolation;
+	private final Set<String> verified = ConcurrentHashMap.newKeySet();
+
+	public QueryPlanVerifier(ApplicationContext context, EntityManagerFactory emf, DataSource dataSource,
+		@Value("${datajpa.query-verifier.fail-on-violation:false}") boolean failOnViolation) {
+		this.context = context;
+		this.emf = emf;
+		this.dataSource = dataSource;
+		this.failOnViolation = failOnViolation;
+		ObservedStatements.enable();
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		List<QueryPlanFinding> findings = verifyDeclared();
+		report("declared queries", findings);
+		if (failOnViolation && findings.stream().anyMatch(QueryPlanFinding::isViolation)) {
+			throw new IllegalStateException("query plan verification failed: "
+				+ findings.stream().filter(QueryPlanFinding::isViolation).map(QueryPlanFinding::getSource).collect(joining(", ")));
+		}
+	}
+
+	@EventListener(ContextClosedEvent.class)
+	public void onClose() {
+		report("observed queries", verifyObserved());
+	}
+
+	/**
+	 * 모든 리포지토리의 @Query(value, countQuery)를 검사한다.
+	 */
+	public List<QueryPlanFinding> verifyDeclared() {
+		List<QueryPlanFinding> findings = new ArrayList<>();
+		DeclaredQueries.collect(new Repositories(context), emf).forEach((source, sql) -> findings.addAll(verify(source, sql)));
+		return findings;
+	}
+
+	/**
+	 * 지금까지 실행된 select 문 중 아직 검사하지 않은 것을 검사한다.
+	 */
+	public List<QueryPlanFinding> verifyObserved() {
+		List<QueryPlanFinding> findings = new ArrayList<>();
+		for (String sql : ObservedStatements.snapshot()) {
+			if (!verified.contains(sql)) {
+				findings.addAll(verify("observed", sql));
+			}
+		}
+		return findings;
+	}
+
+	public List<QueryPlanFinding> verify(String source, String sql) {
+		verified.add(sql);
+		List<QueryPlanFinding> findings = new ArrayList<>();
+		boolean cartesian = hasJoinWithoutCondition(sql);
+		if (cartesian) {
+			findings.add(new QueryPlanFinding(Kind.CARTESIAN_JOIN, source, sql, "join without ON condition"));
+		}
+		String plan = explain(source, sql);
+		if (plan != null) {
+			findings.addAll(inspectPlan(source, sql, plan, cartesian));
+		}
+		return findings;
+	}
+
+	/**
+	 * join 다음에 on/using 이 나오기 전에 다른 절이 시작되면 조인 조건이 없는 것으로 본다.
+	 * cross join 은 조건이 없는 것이 정상이고(Hibernate 의 세타 조인도 cross join 과 where 로 만든다) 검사하지 않는다.
+	 */
+	static boolean hasJoinWithoutCondition(String sql) {
+		String[] tokens = sql.toLowerCase(Locale.ROOT).replaceAll("([(),])", " $1 ").trim().split("\\s+");
+		for (int i = 0; i < tokens.length; i++) {
+			if (!"join".equals(tokens[i]) || i > 0 && "cross".equals(tokens[i - 1])) {
+				continue;
+			}
+			int depth = 0;
+			boolean conditioned = false;
+			for (int j = i + 1; j < tokens.length; j++) {
+				String token = tokens[j];
+				if ("(".equals(token)) {
+					depth++;
+				} else if (")".equals(token)) {
+					if (depth-- == 0) {
+						break;
+					}
+				} else if (depth == 0 && ("on".equals(token) || "using".equals(token))) {
+					conditioned = true;
+					break;
+				} else if (depth == 0 && JOIN_STOP.contains(token)) {
+					break;
+				}
+			}
+			if (!conditioned) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private String explain(String source, String sql) {
+		try (Connection connection = dataSource.getConnection()) {
+			if (!"H2".equals(connection.getMetaData().getDatabaseProductName())) {
+				return null;
+			}
+			try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+				int parameters = statement.getParameterMetaData().getParameterCount();
+				for (int i = 1; i <= parameters; i++) {
+					statement.setNull(i, Types.NULL);
+				}
+				try (ResultSet resultSet = statement.executeQuery()) {
+					return resultSet.next() ? resultSet.getString(1) : null;
+				}
+			}
+		} catch (SQLException e) {
+			log.warn("cannot explain {}: {}", source, e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * H2 는 인덱스를 쓰지 못하는 테이블에 tableScan 주석을 단다.
+	 * 처음 나오는 테이블은 WHERE 가 있으면 조건, 없으면 전체 스캔으로 보고, 이후 테이블은 조인 조건으로 본다.
+	 */
+	private List<QueryPlanFinding> inspectPlan(String source, String sql, String plan, boolean cartesian) {
+		List<QueryPlanFinding> findings = new ArrayList<>();
+		Matcher matcher = TABLE_SCAN.matcher(plan);
+		boolean first = true;
+		boolean hasWhere = plan.contains("\nWHERE ") || plan.contains(" WHERE ");
+		while (matcher.find()) {
+			String table = matcher.group(1).replace("\"", "");
+			if (!first) {
+				findings.add(new QueryPlanFinding(Kind.UNINDEXED_PREDICATE, source, sql, "join to " + table + " scans the table"));
+			} else if (hasWhere) {
+				findings.add(new QueryPlanFinding(Kind.UNINDEXED_PREDICATE, source, sql, "predicate on " + table + " scans the table"));
+			} else {
+				findings.add(new QueryPlanFinding(Kind.FULL_SCAN, source, sql, "full scan of " + table));
+			}
+			first = false;
+		}
+		if (!cartesian && (plan.contains("ON 1=1") || plan.contains("ON TRUE"))) {
+			findings.add(new QueryPlanFinding(Kind.CARTESIAN_JOIN, source, sql, "plan joins without condition"));
+		}
+		return findings;
+	}
+
+	private static void report(String scope, List<QueryPlanFinding> findings) {
+		long violations = findings.stream().filter(QueryPlanFinding::isViolation).count();
+		log.info("query plan verification of {}: {} violations, {} full scans", scope, violations,
+			findings.size() - violations);
+		findings.forEach(finding -> {
+			if (finding.isViolation()) {
+				log.warn("{}", finding);
+			} else {
+				log.info("{}", finding);
+			}
+		});
+	}
+}
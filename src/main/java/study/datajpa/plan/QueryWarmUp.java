@@ -0,0 +1,164 @@
+package study.datajpa.plan;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 애플리케이션 러너가 끝나야 readiness 가 ACCEPTING_TRAFFIC 이 되므로 첫 요청 전에 다음을 마친다.
+ * <ol>
+ * <li>@Query 의 JPQL 을 Hibernate 쿼리 플랜 캐시에 올린다.</li>
+ * <li>조회 쿼리 메서드를 기본 인자로 한 번씩 실행하고 롤백한다(파생 쿼리의 criteria 컴파일).
+ * replica 라우팅이 켜져 있어도 primary 에서 실행되도록 읽기 전용이 아닌 트랜잭션을 쓴다.</li>
+ * </ol>
+ * 단계별 시간은 startup.warmup 타이머와 로그로 남긴다. 실패한 쿼리는 경고만 남기고 건너뛴다.
+ * JDBC 문장은 미리 prepare 하지 않는다. 드라이버의 문장 캐시 없이는 닫는 순간 사라져 남는 것이 없다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "datajpa.warm-up.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryWarmUp implements ApplicationRunner {
+
+	private final ApplicationContext context;
+	private final EntityManagerFactory emf;
+	private final TransactionTemplate rollbackOnly;
+	private final MeterRegistry registry;
+
+	public QueryWarmUp(ApplicationContext context, EntityManagerFactory emf,
+		PlatformTransactionManager transactionManager, MeterRegistry registry) {
+		this.context = context;
+		this.emf = emf;
+		this.rollbackOnly = new TransactionTemplate(transactionManager);
+		this.registry = registry;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		long start = System.nanoTime();
+		Repositories repositories = new Repositories(context);
+
+		int plans = time("plans", () -> DeclaredQueries.collect(repositories, emf).size());
+		int invoked = time("queries", () -> invokeQueryMethods(repositories));
+
+		log.info("query warm-up finished in {} ms: {} declared queries, {} query methods",
+			(System.nanoTime() - start) / 1_000_000, plans, invoked);
+	}
+
+	private int invokeQueryMethods(Repositories repositories) {
+		int invoked = 0;
+		for (Class<?> domainType : repositories) {
+			RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+			Object repository = repositories.getRepositoryFor(domainType).orElseThrow();
+			for (Method method : information.getQueryMethods()) {
+				if (isSafeToInvoke(method) && invoke(repository, method)) {
+					invoked++;
+				}
+			}
+		}
+		return invoked;
+	}
+
+	/**
+	 * 데이터를 바꾸거나 잠그는 메서드, 인자를 만들 수 없는 메서드(동적 프로젝션 등)는 실행하지 않는다.
+	 */
+	private static boolean isSafeToInvoke(Method method) {
+		if (AnnotatedElementUtils.hasAnnotation(method, Modifying.class)
+			|| AnnotatedElementUtils.hasAnnotation(method, Lock.class)) {
+			return false;
+		}
+		String name = method.getName();
+		if (name.startsWith("delete") || name.startsWith("remove")) {
+			return false;
+		}
+		for (Class<?> type : method.getParameterTypes()) {
+			if (type == Class.class) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean invoke(Object repository, Method method) {
+		Object[] args = defaultArguments(method);
+		try {
+			rollbackOnly.executeWithoutResult(status -> {
+				status.setRollbackOnly();
+				try {
+					Object result = method.invoke(repository, args);
+					if (result instanceof Stream) {
+						((Stream<?>) result).close();
+					}
+				} catch (IllegalAccessException e) {
+					throw new IllegalStateException(e);
+				} catch (InvocationTargetException e) {
+					throw new IllegalStateException(e.getTargetException());
+				}
+			});
+			return true;
+		} catch (RuntimeException e) {
+			log.warn("warm-up of {}.{} failed: {}", method.getDeclaringClass().getSimpleName(), method.getName(),
+				e.getMessage());
+			return false;
+		}
+	}
+
+	private static Object[] defaultArguments(Method method) {
+		Class<?>[] types = method.getParameterTypes();
+		Object[] args = new Object[types.length];
+		for (int i = 0; i < types.length; i++) {
+			args[i] = defaultValue(types[i]);
+		}
+		return args;
+	}
+
+	private static Object defaultValue(Class<?> type) {
+		if (type == String.class) {
+			return "";
+		} else if (type == int.class || type == Integer.class) {
+			return 0;
+		} else if (type == long.class || type == Long.class) {
+			return 0L;
+		} else if (type == boolean.class || type == Boolean.class) {
+			return false;
+		} else if (Pageable.class.isAssignableFrom(type)) {
+			return PageRequest.of(0, 1);
+		} else if (type == Sort.class) {
+			return Sort.unsorted();
+		} else if (Collection.class.isAssignableFrom(type)) {
+			return List.of("");
+		}
+		return null;
+	}
+
+	private <T> T time(String phase, Supplier<T> step) {
+		return Timer.builder("startup.warmup")
+			.tag("phase", phase)
+			.register(registry)
+			.record(step);
+	}
+}
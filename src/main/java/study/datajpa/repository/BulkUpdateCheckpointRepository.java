@@ -0,0 +1,14 @@
+package study.datajpa.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import study.datajpa.entity.BulkUpdateCheckpoint;
+
+public interface BulkUpdateCheckpointRepository extends JpaRepository<BulkUpdateCheckpoint, Long> {
+
+	boolean existsByJobIdAndRangeStart(String jobId, Long rangeStart);
+
+	Optional<BulkUpdateCheckpoint> findFirstByJobId(String jobId);
+}
@@ -0,0 +1,205 @@
+package study.datajpa.repository;
+
+import java.beans.Introspector;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.expression.MapAccessor;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.ast.CompoundExpression;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+/**
+ * 인터페이스 기반 프로젝션을 엔티티 없이 만든다.
+ * <p>
+ * 열린 프로젝션의 @Value SpEL 식에서 target.xxx 로 참조하는 속성과 닫힌 getter 의 속성만 조회하고,
+ * 식은 SpEL 컴파일러(MIXED)로 가능한 경우 바이트코드로 변환해 행마다 평가한다. Spring Data 의 열린 프로젝션처럼
+ * 엔티티 전체를 읽고 식을 리플렉션으로 해석하지 않는다.
+ * 닫힌 getter 는 getXxx / isXxx(boolean) 이름이어야 하고 default 메서드는 그대로 호출된다.
+ * target 의 중첩 경로(target.team.name), target 자체를 넘기는 식, 중첩 프로젝션 인터페이스를 돌려주는 getter 는
+ * 지원하지 않으며 {@link #of(Class)} 에서 거부한다.
+ */
+public final class CompiledProjection<T> {
+
+	private static final String TARGET = "target";
+	private static final ConcurrentMap<Class<?>, CompiledProjection<?>> PROJECTIONS = new ConcurrentHashMap<>();
+	private static final SpelExpressionParser PARSER = new SpelExpressionParser(
+		new SpelParserConfiguration(SpelCompilerMode.MIXED, CompiledProjection.class.getClassLoader()));
+
+	private final Class<T> type;
+	private final List<String> properties;
+	private final Map<Method, Integer> methodIndex = new HashMap<>();
+	private final List<Getter> getters = new ArrayList<>();
+	private final StandardEvaluationContext context = new StandardEvaluationContext();
+
+	private CompiledProjection(Class<T> type) {
+		if (!type.isInterface()) {
+			throw new IllegalArgumentException(type.getName() + " is not an interface projection");
+		}
+		this.type = type;
+		this.context.addPropertyAccessor(new MapAccessor());
+
+		Set<String> selected = new LinkedHashSet<>();
+		for (Method method : type.getMethods()) {
+			if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+				continue;
+			}
+			if (method.getParameterCount() > 0 || method.getReturnType() == void.class) {
+				throw new IllegalArgumentException("projection method " + method + " must be a getter without parameters");
+			}
+			Value value = method.getAnnotation(Value.class);
+			Getter getter = value == null
+				? closedGetter(method, selected)
+				: openGetter(method, value.value(), selected);
+			methodIndex.put(method, getters.size());
+			getters.add(getter);
+		}
+		this.properties = List.copyOf(selected);
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <T> CompiledProjection<T> of(Class<T> type) {
+		return (CompiledProjection<T>) PROJECTIONS.computeIfAbsent(type, CompiledProjection::new);
+	}
+
+	/**
+	 * @return "select m.username, m.age" 처럼 필요한 속성만 고르는 select 절
+	 */
+	public String selectClause(String alias) {
+		return properties.stream()
+			.map(property -> alias + "." + property)
+			.collect(Collectors.joining(", ", "select ", ""));
+	}
+
+	public T create(Object[] row) {
+		Map<String, Object> target = new HashMap<>();
+		for (int i = 0; i < properties.size(); i++) {
+			target.put(properties.get(i), row[i]);
+		}
+		Root root = new Root(target);
+		Object[] values = new Object[getters.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = getters.get(i).get(root);
+		}
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+			(proxy, method, args) -> invoke(proxy, method, args, values)));
+	}
+
+	private Object invoke(Object proxy, Method method, Object[] args, Object[] values) throws Throwable {
+		Integer index = methodIndex.get(method);
+		if (index != null) {
+			return values[index];
+		}
+		if (method.isDefault()) {
+			return InvocationHandler.invokeDefault(proxy, method, args);
+		}
+		switch (method.getName()) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return type.getSimpleName() + Arrays.toString(values);
+			default:
+				throw new UnsupportedOperationException(method.toString());
+		}
+	}
+
+	private Getter closedGetter(Method method, Set<String> selected) {
+		String property = propertyName(method);
+		Class<?> returnType = method.getReturnType();
+		if (returnType.isInterface() && !returnType.getName().startsWith("java.")) {
+			throw new IllegalArgumentException("nested projection " + returnType.getName() + " on " + method
+				+ " is not supported; declare the nested values as flat getters");
+		}
+		selected.add(property);
+		return root -> root.getTarget().get(property);
+	}
+
+	private static String propertyName(Method method) {
+		String name = method.getName();
+		Class<?> returnType = method.getReturnType();
+		String suffix = null;
+		if (name.startsWith("get")) {
+			suffix = name.substring(3);
+		} else if (name.startsWith("is") && (returnType == boolean.class || returnType == Boolean.class)) {
+			suffix = name.substring(2);
+		}
+		if (suffix == null || suffix.isEmpty() || !Character.isUpperCase(suffix.charAt(0))) {
+			throw new IllegalArgumentException("closed projection method " + method
+				+ " is not a getXxx/isXxx getter; add @Value or rename it");
+		}
+		return Introspector.decapitalize(suffix);
+	}
+
+	private Getter openGetter(Method method, String template, Set<String> selected) {
+		Expression expression = PARSER.parseExpression(template, ParserContext.TEMPLATE_EXPRESSION);
+		if (!(expression instanceof SpelExpression)) {
+			throw new IllegalArgumentException("unsupported projection expression on " + method + ": " + template);
+		}
+		collectTargetProperties(((SpelExpression) expression).getAST(), selected, method);
+		Class<?> returnType = method.getReturnType();
+		return root -> expression.getValue(context, root, returnType);
+	}
+
+	private static void collectTargetProperties(SpelNode node, Set<String> selected, Method method) {
+		if (isTarget(node)) {
+			throw new IllegalArgumentException("projection expression on " + method + " must reference target properties");
+		}
+		if (node instanceof CompoundExpression && isTarget(node.getChild(0))) {
+			if (node.getChildCount() != 2 || !(node.getChild(1) instanceof PropertyOrFieldReference)) {
+				throw new IllegalArgumentException("nested path " + node.toStringAST() + " on " + method + " is not supported");
+			}
+			selected.add(((PropertyOrFieldReference) node.getChild(1)).getName());
+			return;
+		}
+		for (int i = 0; i < node.getChildCount(); i++) {
+			collectTargetProperties(node.getChild(i), selected, method);
+		}
+	}
+
+	private static boolean isTarget(SpelNode node) {
+		return node instanceof PropertyOrFieldReference && TARGET.equals(((PropertyOrFieldReference) node).getName());
+	}
+
+	@FunctionalInterface
+	private interface Getter {
+		Object get(Root root);
+	}
+
+	/**
+	 * 컴파일된 식이 접근하므로 public 이어야 한다.
+	 */
+	public static class Root {
+
+		private final Map<String, Object> target;
+
+		Root(Map<String, Object> target) {
+			this.target = target;
+		}
+
+		public Map<String, Object> getTarget() {
+			return target;
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package study.datajpa.repository;
+
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import study.datajpa.entity.MemberChangedEvent;
+
+/**
+ * 벌크 update 는 엔티티 콜백을 거치지 않으므로 실행 후 별도로 변경 이벤트를 발행한다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MemberBulkUpdateAspect {
+
+	private final ApplicationEventPublisher publisher;
+
+	@AfterReturning("(execution(* study.datajpa.repository.MemberRepository.*(..))"
+		+ " && @annotation(org.springframework.data.jpa.repository.Modifying))"
+		+ " || execution(* study.datajpa.repository.MemberJpaRepository.bulk*(..))")
+	public void afterBulkUpdate() {
+		publisher.publishEvent(MemberChangedEvent.bulk());
+	}
+}
@@ -59,6 +59,24 @@ public class MemberJpaRepository {
 			.getResultList();
 	}
 
+	public List<Member> findByKeyset(int age, String lastUsername, Long lastId, int limit) {
+		if (lastUsername == null) {
+			return em.createQuery("select m from Member m where m.age = :age "
+					+ "order by m.username desc, m.id desc", Member.class)
+				.setParameter("age", age)
+				.setMaxResults(limit)
+				.getResultList();
+		}
+		return em.createQuery("select m from Member m where m.age = :age "
+				+ "and (m.username < :username or (m.username = :username and m.id < :id)) "
+				+ "order by m.username desc, m.id desc", Member.class)
+			.setParameter("age", age)
+			.setParameter("username", lastUsername)
+			.setParameter("id", lastId)
+			.setMaxResults(limit)
+			.getResultList();
+	}
+
 	public long totalCount(int age) {
 		return em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
 			.setParameter("age", age)
@@ -66,8 +84,27 @@ public class MemberJpaRepository {
 	}
 
 	public int bulkAgePlus(int age) {
-		return em.createQuery("update Member m set m.age = m.age + 1 where m.age >= :age")
+		return em.createQuery("update versioned Member m set m.age = m.age + 1 where m.age >= :age")
 			.setParameter("age", age)
 			.executeUpdate();
 	}
+
+	public int bulkAgePlus(int age, long fromId, long toId) {
+		return em.createQuery("update versioned Member m set m.age = m.age + 1 "
+				+ "where m.age >= :age and m.id between :fromId and :toId")
+			.setParameter("age", age)
+			.setParameter("fromId", fromId)
+			.setParameter("toId", toId)
+			.executeUpdate();
+	}
+
+	public Long findMinId() {
+		return em.createQuery("select min(m.id) from Member m", Long.class)
+			.getSingleResult();
+	}
+
+	public Long findMaxId() {
+		return em.createQuery("select max(m.id) from Member m", Long.class)
+			.getSingleResult();
+	}
 }
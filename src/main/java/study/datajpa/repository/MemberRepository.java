@@ -2,14 +2,16 @@ package study.datajpa.repository;
 
 import static javax.persistence.LockModeType.*;
 
-import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import javax.persistence.LockModeType;
 import javax.persistence.QueryHint;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
@@ -36,17 +38,47 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
 	@Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
 	List<MemberDto> findMemberDto();
 
-	@Query("select m from Member m where m.username in :names")
-	List<Member> findByNames(@Param("names") Collection<String> names);
+	@Query(value = "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+		countQuery = "select count(m) from Member m")
+	Page<MemberDto> findMemberDtoPage(Pageable pageable);
+
+	@Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t "
+		+ "where m.id = :id")
+	Optional<MemberDto> findMemberDtoById(@Param("id") Long id);
+
+	@QueryHints(value = {
+		@QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+		@QueryHint(name = "org.hibernate.readOnly", value = "true")
+	})
+	@Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t")
+	Stream<MemberDto> streamMemberDto();
 
 	Page<Member> findByAge(int age, Pageable pageable);
 
+	List<Member> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+	/**
+	 * username 이 null 인 회원은 커서로 이어 갈 수 없으므로 username 순 키셋 페이징에서 제외한다.
+	 */
+	List<Member> findByUsernameNotNullOrderByUsernameAscIdAsc(Pageable pageable);
+
+	@Query("select m from Member m "
+		+ "where m.username is not null "
+		+ "and (m.username > :username or (m.username = :username and m.id > :id)) "
+		+ "order by m.username asc, m.id asc")
+	List<Member> findNextByUsername(@Param("username") String username, @Param("id") Long id, Pageable pageable);
+
 	@Query(value = "select m from Member m left join m.team t",
 		countQuery = "select count(m) from Member m")
 	Page<Member> findByAge_join(int age, Pageable pageable);
 
+	Slice<Member> findSliceByAge(int age, Pageable pageable);
+
+	@Query("select m from Member m left join m.team t where m.age = :age")
+	Slice<Member> findSliceByAge_join(@Param("age") int age, Pageable pageable);
+
 	@Modifying(clearAutomatically = true)
-	@Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+	@Query("update versioned Member m set m.age = m.age + 1 where m.age >= :age")
 	int bulkAgePlus(@Param("age") int age);
 
 	@Query("select m from Member m left join fetch m.team")
@@ -62,13 +94,18 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
 	@Lock(PESSIMISTIC_WRITE)
 	List<Member> findLockByUsername(String username);
 
+	@Lock(PESSIMISTIC_WRITE)
+	Optional<Member> findLockById(Long id);
+
 	List<NestedClosedProjections> findProjectionsByUsername(@Param("username") String username);
 
+	<T> List<T> findAllProjectedBy(Class<T> type);
+
 	@Query(value = "select * from Member where username = ?", nativeQuery = true)
 	Member findByNativeQuery(String username);
 
 	@Query(value = "select m.member_id as id, m.username, t.name as teamName "
-		+ "from member m left join team t",
+		+ "from member m left join team t on m.team_id = t.team_id",
 		countQuery = "select count(*) from member",
 		nativeQuery = true)
 	 Page<MemberProjection> findByNativeProjection(Pageable pageable);
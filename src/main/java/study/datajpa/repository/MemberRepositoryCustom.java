@@ -1,9 +1,36 @@
 package study.datajpa.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
 import study.datajpa.entity.Member;
 
 public interface MemberRepositoryCustom {
 	List<Member> findMemberCustom();
+
+	/**
+	 * username 이 names 중 하나인 회원. 목록이 chunk-size 보다 길면 나누어 조회해 합치고,
+	 * staging-threshold 보다 길면 작업 테이블에 넣고 조인한다. 결과 순서는 보장하지 않는다.
+	 */
+	List<Member> findByNames(Collection<String> names);
+
+	Page<Member> findByAgeWithCachedCount(int age, Pageable pageable);
+
+	Page<Member> findByAgeJoinWithCachedCount(int age, Pageable pageable);
+
+	<T> List<T> findCompiledProjectionsByUsername(String username, Class<T> type);
+
+	<T> List<T> findAllCompiledProjections(Class<T> type);
+
+	/**
+	 * 조건에 맞고 다른 트랜잭션이 잠그지 않은 회원을 id 순으로 최대 limit 명 잠근다(FOR UPDATE SKIP LOCKED).
+	 * 잠금은 호출한 트랜잭션이 끝날 때 풀린다.
+	 * SKIP LOCKED 는 PostgreSQL, MySQL 8, Oracle 처럼 지원하는 방언에서만 동작한다. H2 에서는 잠긴 행을 만나면
+	 * datajpa.claim.lock-timeout 동안 기다린 뒤 잠금 예외가 난다.
+	 */
+	List<Member> claim(Specification<Member> spec, int limit);
 }
@@ -1,20 +1,235 @@
 package study.datajpa.repository;
 
+import static javax.persistence.LockModeType.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.LockOptions;
+import org.hibernate.Session;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import lombok.RequiredArgsConstructor;
+import study.datajpa.cache.CountCache;
 import study.datajpa.entity.Member;
 
-@RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
+	private static final String LOCK_TIMEOUT = "javax.persistence.lock.timeout";
+	private static final String COUNT_BY_AGE = "select count(m) from Member m where m.age = :age";
+
+	private static final String FIND_BY_NAMES = "select m from Member m where m.username in :names";
+	private static final String FIND_BY_STAGED_NAMES = "select m.* from member m "
+		+ "join member_name_filter f on f.username = m.username where f.batch_id = ?";
+
 	private final EntityManager em;
+	private final CountCache countCache;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate stagingTransaction;
+	private final int inClauseChunkSize;
+	private final int stagingThreshold;
+	private final int claimLockTimeoutMillis;
+	private volatile Dialect dialect;
+
+	public MemberRepositoryImpl(EntityManager em, CountCache countCache, JdbcTemplate jdbcTemplate,
+		PlatformTransactionManager transactionManager,
+		@Value("${datajpa.in-clause.chunk-size:512}") int inClauseChunkSize,
+		@Value("${datajpa.in-clause.staging-threshold:4096}") int stagingThreshold,
+		@Value("${datajpa.claim.lock-timeout:1s}") Duration claimLockTimeout) {
+		this.em = em;
+		this.countCache = countCache;
+		this.jdbcTemplate = jdbcTemplate;
+		this.stagingTransaction = new TransactionTemplate(transactionManager);
+		this.stagingTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.inClauseChunkSize = inClauseChunkSize;
+		this.stagingThreshold = stagingThreshold;
+		this.claimLockTimeoutMillis = Math.toIntExact(claimLockTimeout.toMillis());
+	}
 
 	@Override
 	public List<Member> findMemberCustom() {
 		return em.createQuery("select m from Member m", Member.class)
 			.getResultList();
 	}
+
+	/**
+	 * in_clause_parameter_padding 으로 IN 목록이 2의 거듭제곱 길이로 채워지므로,
+	 * chunk-size 를 2의 거듭제곱으로 두면 몇 가지 SQL 만 만들어진다.
+	 * 작업 테이블은 쓰기 가능한 트랜잭션에서만 쓸 수 있으므로, 읽기 전용 트랜잭션 안에서 호출되면 작업 테이블 경로만
+	 * 새 트랜잭션(REQUIRES_NEW)에서 실행한다. 이때 돌려주는 엔티티는 호출한 쪽의 영속성 컨텍스트에 속하지 않는다.
+	 */
+	@Override
+	@Transactional
+	public List<Member> findByNames(Collection<String> names) {
+		Set<String> distinct = names.stream()
+			.filter(Objects::nonNull)
+			.collect(Collectors.toCollection(LinkedHashSet::new));
+		if (distinct.isEmpty()) {
+			return List.of();
+		}
+		if (distinct.size() > stagingThreshold) {
+			return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+				? stagingTransaction.execute(status -> findByStagedNames(distinct))
+				: findByStagedNames(distinct);
+		}
+
+		List<String> all = new ArrayList<>(distinct);
+		List<Member> result = new ArrayList<>();
+		for (int from = 0; from < all.size(); from += inClauseChunkSize) {
+			result.addAll(em.createQuery(FIND_BY_NAMES, Member.class)
+				.setParameter("names", all.subList(from, Math.min(from + inClauseChunkSize, all.size())))
+				.getResultList());
+		}
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Member> findByStagedNames(Set<String> names) {
+		String batchId = UUID.randomUUID().toString();
+		jdbcTemplate.batchUpdate("insert into member_name_filter (batch_id, username) values (?, ?)", names,
+			inClauseChunkSize, (ps, name) -> {
+				ps.setString(1, batchId);
+				ps.setString(2, name);
+			});
+		try {
+			return em.createNativeQuery(FIND_BY_STAGED_NAMES, Member.class)
+				.setParameter(1, batchId)
+				.getResultList();
+		} finally {
+			jdbcTemplate.update("delete from member_name_filter where batch_id = ?", batchId);
+		}
+	}
+
+	@Override
+	public Page<Member> findByAgeWithCachedCount(int age, Pageable pageable) {
+		return findPageByAge("select m from Member m where m.age = :age", age, pageable);
+	}
+
+	@Override
+	public Page<Member> findByAgeJoinWithCachedCount(int age, Pageable pageable) {
+		return findPageByAge("select m from Member m left join fetch m.team t where m.age = :age", age, pageable);
+	}
+
+	@Override
+	public <T> List<T> findCompiledProjectionsByUsername(String username, Class<T> type) {
+		CompiledProjection<T> projection = CompiledProjection.of(type);
+		return em.createQuery(projection.selectClause("m") + " from Member m where m.username = :username", Tuple.class)
+			.setParameter("username", username)
+			.getResultStream()
+			.map(tuple -> projection.create(tuple.toArray()))
+			.collect(Collectors.toList());
+	}
+
+	@Override
+	public <T> List<T> findAllCompiledProjections(Class<T> type) {
+		CompiledProjection<T> projection = CompiledProjection.of(type);
+		return em.createQuery(projection.selectClause("m") + " from Member m", Tuple.class)
+			.getResultStream()
+			.map(tuple -> projection.create(tuple.toArray()))
+			.collect(Collectors.toList());
+	}
+
+	@Override
+	public List<Member> claim(Specification<Member> spec, int limit) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Member> query = cb.createQuery(Member.class);
+		Root<Member> m = query.from(Member.class);
+		Predicate predicate = spec == null ? null : spec.toPredicate(m, query, cb);
+		if (predicate != null) {
+			query.where(predicate);
+		}
+		query.select(m).orderBy(cb.asc(m.get("id")));
+
+		TypedQuery<Member> claim = em.createQuery(query)
+			.setLockMode(PESSIMISTIC_WRITE)
+			.setMaxResults(limit);
+		Dialect dialect = dialect();
+		if (dialect.supportsSkipLocked()) {
+			return claim.setHint(LOCK_TIMEOUT, LockOptions.SKIP_LOCKED).getResultList();
+		}
+		claim.setHint(LOCK_TIMEOUT, claimLockTimeoutMillis);
+		if (!(dialect instanceof H2Dialect)) {
+			return claim.getResultList();
+		}
+		// H2 방언은 for update 에 대기 시간을 붙이지 못해 힌트가 버려지므로, 세션의 LOCK_TIMEOUT 을 잠시 바꾼다.
+		Session session = em.unwrap(Session.class);
+		int previous = session.doReturningWork(connection -> setH2LockTimeout(connection, claimLockTimeoutMillis));
+		try {
+			return claim.getResultList();
+		} finally {
+			session.doWork(connection -> setH2LockTimeout(connection, previous));
+		}
+	}
+
+	/**
+	 * 방언이 SKIP LOCKED 를 지원하지 않으면(H2 등) 잠긴 행을 건너뛰지 못하므로
+	 * datajpa.claim.lock-timeout 만큼 기다리다 실패하게 한다.
+	 * EntityManagerFactory 가 지연 초기화될 수 있어 첫 호출에서 확인한다.
+	 */
+	private Dialect dialect() {
+		Dialect current = dialect;
+		if (current == null) {
+			current = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+				.getJdbcServices().getDialect();
+			dialect = current;
+		}
+		return current;
+	}
+
+	private static int setH2LockTimeout(Connection connection, int millis) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			int previous;
+			try (ResultSet rs = statement.executeQuery("select lock_timeout()")) {
+				rs.next();
+				previous = rs.getInt(1);
+			}
+			statement.execute("set lock_timeout " + millis);
+			return previous;
+		}
+	}
+
+	private Page<Member> findPageByAge(String query, int age, Pageable pageable) {
+		List<Member> content = em.createQuery(QueryUtils.applySorting(query, pageable.getSort(), "m"), Member.class)
+			.setParameter("age", age)
+			.setFirstResult((int) pageable.getOffset())
+			.setMaxResults(pageable.getPageSize())
+			.getResultList();
+
+		return PageableExecutionUtils.getPage(content, pageable,
+			() -> countCache.get(COUNT_BY_AGE, List.of(age), () -> em.createQuery(COUNT_BY_AGE, Long.class)
+				.setParameter("age", age)
+				.getSingleResult()));
+	}
 }
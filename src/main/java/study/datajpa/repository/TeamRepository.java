@@ -1,8 +1,20 @@
 package study.datajpa.repository;
 
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import study.datajpa.dto.TeamStatsDto;
 import study.datajpa.entity.Team;
 
 public interface TeamRepository extends JpaRepository<Team, Long> {
+
+	Optional<Team> findFirstByName(String name);
+
+	@Query("select new study.datajpa.dto.TeamStatsDto(t.id, t.name, count(m), avg(m.age)) "
+		+ "from Member self join self.team t join t.members m "
+		+ "where self.id = :memberId group by t.id, t.name")
+	Optional<TeamStatsDto> findStatsByMemberId(@Param("memberId") Long memberId);
 }
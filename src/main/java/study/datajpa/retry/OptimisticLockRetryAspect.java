@@ -0,0 +1,61 @@
+package study.datajpa.retry;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.persistence.OptimisticLockException;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 트랜잭션 어드바이스(LOWEST_PRECEDENCE)보다 바깥에서 실행되어야 재시도마다 새 트랜잭션이 열린다.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class OptimisticLockRetryAspect {
+
+	private final MeterRegistry registry;
+
+	@Around("@annotation(retry)")
+	public Object retry(ProceedingJoinPoint joinPoint, RetryOnOptimisticLock retry) throws Throwable {
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return joinPoint.proceed();
+		}
+
+		String method = joinPoint.getSignature().toShortString();
+		for (int attempt = 1; ; attempt++) {
+			try {
+				return joinPoint.proceed();
+			} catch (OptimisticLockingFailureException | OptimisticLockException e) {
+				if (attempt >= retry.maxAttempts()) {
+					log.warn("{} gave up after {} attempts", method, attempt);
+					throw e;
+				}
+				Counter.builder("optimistic_lock.retries")
+					.tag("method", method)
+					.register(registry)
+					.increment();
+				Thread.sleep(backoff(retry, attempt));
+			}
+		}
+	}
+
+	private long backoff(RetryOnOptimisticLock retry, int attempt) {
+		long ceiling = Math.min(retry.maxBackoffMillis(), retry.backoffMillis() << Math.min(attempt - 1, 20));
+		return ThreadLocalRandom.current().nextLong(ceiling + 1);
+	}
+}
@@ -0,0 +1,24 @@
+package study.datajpa.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 낙관적 락 충돌로 실패한 트랜잭션 메서드를 새 트랜잭션으로 다시 실행한다.
+ * 재시도 간격은 backoffMillis * 2^(시도-1) 범위 안에서 무작위로 정한다(full jitter).
+ * 이미 진행 중인 트랜잭션 안에서 호출되면 재시도하지 않는다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnOptimisticLock {
+
+	int maxAttempts() default 5;
+
+	long backoffMillis() default 10;
+
+	long maxBackoffMillis() default 500;
+}
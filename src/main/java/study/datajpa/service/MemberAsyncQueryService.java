@@ -0,0 +1,33 @@
+package study.datajpa.service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.TeamStatsDto;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+/**
+ * 자주 쓰는 조회를 QueryExecutor 에서 실행하고 CompletableFuture 로 돌려준다.
+ * 각 조회는 실행 스레드에서 리포지토리의 읽기 전용 트랜잭션으로 끝나므로 엔티티 대신 DTO 를 반환한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberAsyncQueryService {
+
+	private final QueryExecutor queryExecutor;
+	private final MemberRepository memberRepository;
+	private final TeamRepository teamRepository;
+
+	public CompletableFuture<Optional<MemberDto>> findMemberDto(Long id) {
+		return queryExecutor.submit(() -> memberRepository.findMemberDtoById(id));
+	}
+
+	public CompletableFuture<Optional<TeamStatsDto>> findTeamStats(Long memberId) {
+		return queryExecutor.submit(() -> teamRepository.findStatsByMemberId(memberId));
+	}
+}
@@ -0,0 +1,155 @@
+package study.datajpa.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import study.datajpa.dto.BulkUpdateResult;
+import study.datajpa.entity.BulkUpdateCheckpoint;
+import study.datajpa.repository.BulkUpdateCheckpointRepository;
+import study.datajpa.repository.MemberJpaRepository;
+
+/**
+ * bulkAgePlus 를 member_id 구간으로 나누어 구간마다 별도 트랜잭션으로 실행한다.
+ * 한 문장이 테이블 전체의 row lock 을 오래 잡지 않고, parallelism 만큼의 커넥션으로 동시에 처리할 수 있다.
+ * 구간은 chunkSize 의 배수로 정렬되므로 같은 jobId, age, chunkSize 로 재실행하면 완료된 구간을 건너뛴다.
+ * 구간 트랜잭션마다 커넥션을 하나씩 잡으므로 parallelism 은 커넥션 풀 크기에서 headroom 을 뺀 값을 넘을 수 없다.
+ */
+@Service
+public class MemberBulkUpdateService {
+
+	private final MemberJpaRepository memberJpaRepository;
+	private final BulkUpdateCheckpointRepository checkpointRepository;
+	private final TransactionTemplate chunkTransaction;
+	private final int maxParallelism;
+
+	public MemberBulkUpdateService(MemberJpaRepository memberJpaRepository,
+		BulkUpdateCheckpointRepository checkpointRepository,
+		PlatformTransactionManager transactionManager,
+		@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+		@Value("${datajpa.bulk-update.connection-headroom:2}") int connectionHeadroom) {
+		this.memberJpaRepository = memberJpaRepository;
+		this.checkpointRepository = checkpointRepository;
+		this.maxParallelism = Math.max(1, poolSize - connectionHeadroom);
+		this.chunkTransaction = new TransactionTemplate(transactionManager);
+		this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	public BulkUpdateResult bulkAgePlus(String jobId, int age, int chunkSize, int parallelism,
+		Consumer<BulkUpdateResult> progress) {
+		if (chunkSize < 1 || parallelism < 1) {
+			throw new IllegalArgumentException("chunkSize and parallelism must be positive");
+		}
+		if (parallelism > maxParallelism) {
+			throw new IllegalArgumentException("parallelism must not exceed " + maxParallelism
+				+ " (connection pool size minus headroom)");
+		}
+		checkpointRepository.findFirstByJobId(jobId).ifPresent(checkpoint -> {
+			if (checkpoint.getRangeEnd() - checkpoint.getRangeStart() + 1 != chunkSize) {
+				throw new IllegalArgumentException("job " + jobId + " was started with a different chunk size");
+			}
+			if (checkpoint.getAge() != null && checkpoint.getAge() != age) {
+				throw new IllegalArgumentException("job " + jobId + " was started with a different age");
+			}
+		});
+
+		List<long[]> ranges = ranges(chunkSize);
+		Tracker tracker = new Tracker(jobId, ranges.size(), progress);
+		if (parallelism == 1) {
+			for (long[] range : ranges) {
+				tracker.record(runChunk(jobId, age, range[0], range[1]));
+			}
+			return tracker.result();
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try {
+			CompletionService<Integer> completion = new ExecutorCompletionService<>(executor);
+			List<Future<Integer>> futures = new ArrayList<>();
+			for (long[] range : ranges) {
+				futures.add(completion.submit(() -> runChunk(jobId, age, range[0], range[1])));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				tracker.record(completion.take().get());
+			}
+			return tracker.result();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("bulk update " + jobId + " interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("bulk update " + jobId + " failed, rerun to resume", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return 반영한 행 수, 이미 완료된 구간이면 -1
+	 */
+	private int runChunk(String jobId, int age, long rangeStart, long rangeEnd) {
+		Integer updated = chunkTransaction.execute(status -> {
+			if (checkpointRepository.existsByJobIdAndRangeStart(jobId, rangeStart)) {
+				return -1;
+			}
+			int rows = memberJpaRepository.bulkAgePlus(age, rangeStart, rangeEnd);
+			checkpointRepository.save(new BulkUpdateCheckpoint(jobId, age, rangeStart, rangeEnd, rows));
+			return rows;
+		});
+		return updated == null ? 0 : updated;
+	}
+
+	private List<long[]> ranges(int chunkSize) {
+		List<long[]> ranges = new ArrayList<>();
+		Long minId = memberJpaRepository.findMinId();
+		Long maxId = memberJpaRepository.findMaxId();
+		if (minId == null) {
+			return ranges;
+		}
+		for (long start = Math.floorDiv(minId, chunkSize) * chunkSize; start <= maxId; start += chunkSize) {
+			ranges.add(new long[] {start, start + chunkSize - 1});
+		}
+		return ranges;
+	}
+
+	private static class Tracker {
+
+		private final String jobId;
+		private final int totalChunks;
+		private final Consumer<BulkUpdateResult> progress;
+		private int completedChunks;
+		private int skippedChunks;
+		private long updatedRows;
+
+		Tracker(String jobId, int totalChunks, Consumer<BulkUpdateResult> progress) {
+			this.jobId = jobId;
+			this.totalChunks = totalChunks;
+			this.progress = progress;
+		}
+
+		void record(int updated) {
+			if (updated < 0) {
+				skippedChunks++;
+			} else {
+				completedChunks++;
+				updatedRows += updated;
+			}
+			progress.accept(result());
+		}
+
+		BulkUpdateResult result() {
+			return new BulkUpdateResult(jobId, totalChunks, completedChunks, skippedChunks, updatedRows);
+		}
+	}
+}
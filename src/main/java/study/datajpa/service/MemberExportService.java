@@ -0,0 +1,47 @@
+package study.datajpa.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 전체 회원을 NDJSON 으로 내보낸다. 결과를 커서로 읽으면서 바로 쓰기 때문에
+ * 회원 수와 관계없이 힙 사용량이 일정하다. DTO 로 조회하므로 영속성 컨텍스트에는 아무것도 쌓이지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberExportService {
+
+	private static final int FLUSH_INTERVAL = 500;
+	private static final byte NEW_LINE = '\n';
+
+	private final MemberRepository memberRepository;
+	private final ObjectMapper objectMapper;
+
+	@Transactional(readOnly = true)
+	public long writeNdjson(OutputStream out) throws IOException {
+		long count = 0;
+		try (Stream<MemberDto> members = memberRepository.streamMemberDto()) {
+			Iterator<MemberDto> iterator = members.iterator();
+			while (iterator.hasNext()) {
+				out.write(objectMapper.writeValueAsBytes(iterator.next()));
+				out.write(NEW_LINE);
+				if (++count % FLUSH_INTERVAL == 0) {
+					out.flush();
+				}
+			}
+		}
+		out.flush();
+		return count;
+	}
+}
@@ -0,0 +1,164 @@
+package study.datajpa.service;
+
+import static java.nio.charset.StandardCharsets.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import study.datajpa.dto.ImportResult;
+import study.datajpa.dto.MemberImportRow;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.TeamRepository;
+
+/**
+ * 회원 대량 등록. 입력을 한 줄씩 읽어 batch-size 건마다 하나의 트랜잭션으로 insert 하고,
+ * 영속성 컨텍스트를 비워 메모리 사용량을 일정하게 유지한다.
+ * 중간에 잘못된 줄을 만나면 그 전 청크까지는 커밋된 채로 남는다.
+ */
+@Service
+public class MemberImportService {
+
+	private final EntityManager em;
+	private final TeamRepository teamRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final ObjectMapper objectMapper;
+	private final int batchSize;
+
+	public MemberImportService(EntityManager em, TeamRepository teamRepository,
+		TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+		@Value("${datajpa.import.batch-size:500}") int batchSize) {
+		this.em = em;
+		this.teamRepository = teamRepository;
+		this.transactionTemplate = transactionTemplate;
+		this.objectMapper = objectMapper;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * username,age[,teamName] 형식. 첫 줄이 username 으로 시작하면 헤더로 보고 건너뛴다.
+	 */
+	public ImportResult importCsv(InputStream in) throws IOException {
+		return importRows(in, (line, lineNumber) -> {
+			if (lineNumber == 1 && line.toLowerCase().startsWith("username")) {
+				return null;
+			}
+			String[] columns = line.split(",", -1);
+			if (columns.length < 2) {
+				throw new IllegalArgumentException("line " + lineNumber + ": expected username,age[,teamName]");
+			}
+			try {
+				String teamName = columns.length > 2 && !columns[2].isBlank() ? columns[2].trim() : null;
+				return new MemberImportRow(columns[0].trim(), Integer.parseInt(columns[1].trim()), teamName);
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("line " + lineNumber + ": invalid age '" + columns[1] + "'", e);
+			}
+		});
+	}
+
+	/**
+	 * 한 줄에 {"username": .., "age": .., "teamName": ..} 하나.
+	 */
+	public ImportResult importNdjson(InputStream in) throws IOException {
+		return importRows(in, (line, lineNumber) -> {
+			try {
+				return objectMapper.readValue(line, MemberImportRow.class);
+			} catch (JsonProcessingException e) {
+				throw new IllegalArgumentException("line " + lineNumber + ": " + e.getOriginalMessage(), e);
+			}
+		});
+	}
+
+	private ImportResult importRows(InputStream in, RowParser parser) throws IOException {
+		long started = System.nanoTime();
+		Map<String, Long> teamIds = new HashMap<>();
+		List<MemberImportRow> chunk = new ArrayList<>(batchSize);
+		long imported = 0;
+		int lineNumber = 0;
+
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, UTF_8));
+		String line;
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			if (line.isBlank()) {
+				continue;
+			}
+			MemberImportRow row;
+			try {
+				row = parser.parse(line, lineNumber);
+			} catch (IllegalArgumentException e) {
+				// 앞선 청크는 이미 커밋되었으므로 몇 건이 들어갔는지 함께 알려준다.
+				throw new IllegalArgumentException(e.getMessage() + " (" + imported + " rows already imported)", e);
+			}
+			if (row == null) {
+				continue;
+			}
+			chunk.add(row);
+			if (chunk.size() == batchSize) {
+				imported += insert(chunk, teamIds);
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			imported += insert(chunk, teamIds);
+		}
+		return new ImportResult(imported, teamIds.size(), (System.nanoTime() - started) / 1_000_000);
+	}
+
+	private int insert(List<MemberImportRow> rows, Map<String, Long> teamIds) {
+		// 롤백되면 이번 청크에서 만든 팀은 존재하지 않으므로 커밋 후에만 캐시에 반영한다.
+		Map<String, Long> created = new HashMap<>();
+		transactionTemplate.executeWithoutResult(status -> {
+			for (MemberImportRow row : rows) {
+				Member member = new Member(row.getUsername(), row.getAge());
+				if (row.getTeamName() != null) {
+					member.setTeam(teamReference(row.getTeamName(), teamIds, created));
+				}
+				em.persist(member);
+			}
+			em.flush();
+			em.clear();
+		});
+		teamIds.putAll(created);
+		return rows.size();
+	}
+
+	private Team teamReference(String name, Map<String, Long> teamIds, Map<String, Long> created) {
+		Long id = teamIds.get(name);
+		if (id == null) {
+			id = created.get(name);
+		}
+		if (id == null) {
+			id = teamRepository.findFirstByName(name)
+				.orElseGet(() -> {
+					Team team = new Team(name);
+					em.persist(team);
+					return team;
+				})
+				.getId();
+			created.put(name, id);
+		}
+		// team.members 컬렉션을 건드리지 않도록 프록시 참조만 사용한다.
+		return em.getReference(Team.class, id);
+	}
+
+	@FunctionalInterface
+	private interface RowParser {
+		MemberImportRow parse(String line, int lineNumber);
+	}
+}
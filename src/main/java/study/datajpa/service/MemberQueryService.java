@@ -0,0 +1,26 @@
+package study.datajpa.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 화면에 내려갈 모양 그대로 DTO 로 조회한다. open-in-view 를 끄므로
+ * 트랜잭션이 끝난 뒤 지연 로딩이 일어나지 않도록 필요한 연관은 쿼리에서 함께 가져온다.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class MemberQueryService {
+
+	private final MemberRepository memberRepository;
+
+	public Page<MemberDto> findMemberDtoPage(Pageable pageable) {
+		return memberRepository.findMemberDtoPage(pageable);
+	}
+}
@@ -0,0 +1,66 @@
+package study.datajpa.service;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 회원이 하나도 없으면 user0..(count-1) 을 넣는다. 컨텍스트 초기화가 끝난 뒤(ApplicationReadyEvent) 실행하고,
+ * 기본은 applicationTaskExecutor 에서 실행해 readiness(ACCEPTING_TRAFFIC) 전환과 첫 요청을 막지 않는다.
+ * async 를 끄면 시딩이 끝나야 트래픽을 받는다.
+ */
+@Slf4j
+@Component
+public class MemberSeeder {
+
+	private final MemberRepository memberRepository;
+	private final TaskExecutor taskExecutor;
+	private final boolean enabled;
+	private final boolean async;
+	private final int count;
+
+	public MemberSeeder(MemberRepository memberRepository,
+		@Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+		@Value("${datajpa.seed.enabled:true}") boolean enabled,
+		@Value("${datajpa.seed.async:true}") boolean async,
+		@Value("${datajpa.seed.count:100}") int count) {
+		this.memberRepository = memberRepository;
+		this.taskExecutor = taskExecutor;
+		this.enabled = enabled;
+		this.async = async;
+		this.count = count;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onReady() {
+		if (!enabled) {
+			return;
+		}
+		if (async) {
+			taskExecutor.execute(this::seed);
+		} else {
+			seed();
+		}
+	}
+
+	public void seed() {
+		if (memberRepository.count() > 0) {
+			return;
+		}
+		long start = System.nanoTime();
+		memberRepository.saveAll(IntStream.range(0, count)
+			.mapToObj(i -> new Member("user" + i, i))
+			.collect(Collectors.toList()));
+		log.info("seeded {} members in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+	}
+}
@@ -0,0 +1,41 @@
+package study.datajpa.service;
+
+import javax.persistence.EntityNotFoundException;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.retry.RetryOnOptimisticLock;
+
+@Service
+@RequiredArgsConstructor
+public class MemberService {
+
+	private final MemberRepository memberRepository;
+
+	/**
+	 * 버전 충돌이 나면 커밋 시점에 실패하고 RetryOnOptimisticLock 이 새 트랜잭션으로 다시 실행한다.
+	 */
+	@RetryOnOptimisticLock(maxAttempts = 10)
+	@Transactional
+	public int increaseAge(Long id) {
+		Member member = memberRepository.findById(id)
+			.orElseThrow(EntityNotFoundException::new);
+		member.setAge(member.getAge() + 1);
+		return member.getAge();
+	}
+
+	/**
+	 * 비교용 비관적 락 경로. 같은 회원에 대한 요청은 행 잠금 순서대로 줄을 선다.
+	 */
+	@Transactional
+	public int increaseAgePessimistic(Long id) {
+		Member member = memberRepository.findLockById(id)
+			.orElseThrow(EntityNotFoundException::new);
+		member.setAge(member.getAge() + 1);
+		return member.getAge();
+	}
+}
@@ -0,0 +1,48 @@
+package study.datajpa.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * 조회 전용 스레드 풀. 한 번에 하나의 커넥션만 쓰므로 풀 크기를 커넥션 풀과 맞추고,
+ * 대기열이 차면 큐잉하지 않고 TaskRejectedException 으로 바로 거절한다.
+ * Executor 빈으로 등록하면 스프링 부트의 applicationTaskExecutor 가 빠지므로 내부에서 직접 만든다.
+ */
+@Component
+public class QueryExecutor {
+
+	private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+	public QueryExecutor(@Value("${datajpa.query-executor.pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int poolSize,
+		@Value("${datajpa.query-executor.queue-capacity:100}") int queueCapacity,
+		MeterRegistry registry) {
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("query-");
+		executor.initialize();
+		ExecutorServiceMetrics.monitor(registry, executor.getThreadPoolExecutor(), "query-executor");
+	}
+
+	/**
+	 * @throws TaskRejectedException 대기열이 가득 찬 경우
+	 */
+	public <T> CompletableFuture<T> submit(Supplier<T> query) {
+		return CompletableFuture.supplyAsync(query, executor);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+}
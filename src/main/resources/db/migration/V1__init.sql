@@ -0,0 +1,50 @@
+-- 시퀀스 증가폭은 PooledSequenceGenerator 의 allocation 크기(datajpa.id.increment_size)와 같아야 한다.
+create sequence member_seq start with 1 increment by 50;
+create sequence team_seq start with 1 increment by 50;
+create sequence bulk_update_checkpoint_seq start with 1 increment by 50;
+
+create table team (
+    team_id bigint not null,
+    name varchar(255),
+    version bigint,
+    primary key (team_id)
+);
+
+create table member (
+    member_id bigint not null,
+    created_date timestamp,
+    last_modified_date timestamp,
+    created_by varchar(255),
+    last_modified_by varchar(255),
+    username varchar(255),
+    age integer not null,
+    version bigint,
+    team_id bigint,
+    primary key (member_id),
+    constraint fk_member_team foreign key (team_id) references team (team_id)
+);
+
+create table item (
+    id varchar(255) not null,
+    created_date timestamp,
+    primary key (id)
+);
+
+create table bulk_update_checkpoint (
+    checkpoint_id bigint not null,
+    job_id varchar(255) not null,
+    range_start bigint not null,
+    range_end bigint not null,
+    updated_rows integer not null,
+    primary key (checkpoint_id),
+    constraint uk_bulk_update_checkpoint unique (job_id, range_start)
+);
+
+-- findByUsername, findByNames, findLockByUsername, findByNativeQuery, username 순 키셋 페이징
+create index idx_member_username on member (username, member_id);
+-- findByAge 와 username 정렬 페이징(findByPage), age 조건 count 를 인덱스만으로 처리한다.
+create index idx_member_age_username on member (age, username, member_id);
+-- 팀 조인, 팀 통계
+create index idx_member_team on member (team_id);
+-- 가져오기의 팀 이름 조회(findFirstByName)
+create index idx_team_name on team (name);
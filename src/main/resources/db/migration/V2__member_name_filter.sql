@@ -0,0 +1,7 @@
+-- findByNames 가 긴 이름 목록을 IN 절 대신 조인으로 처리할 때 쓰는 작업 테이블.
+-- 조회마다 batch_id 로 구분하고 조회가 끝나면 지운다.
+create table member_name_filter (
+    batch_id varchar(36) not null,
+    username varchar(255) not null,
+    primary key (batch_id, username)
+);
@@ -0,0 +1,5 @@
+-- V1 로 만든 DB 에는 이미 있는 인덱스다. ddl-auto 로 만들어져 버전 1 로 baseline 된 DB 에만 새로 생긴다.
+create index if not exists idx_member_username on member (username, member_id);
+create index if not exists idx_member_age_username on member (age, username, member_id);
+create index if not exists idx_member_team on member (team_id);
+create index if not exists idx_team_name on team (name);
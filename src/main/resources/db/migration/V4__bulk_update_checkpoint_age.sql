@@ -0,0 +1,2 @@
+-- 같은 jobId 를 다른 age 로 재실행하지 못하게 처음 실행한 age 를 남긴다.
+alter table bulk_update_checkpoint add column age integer;
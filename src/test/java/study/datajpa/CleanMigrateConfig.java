@@ -0,0 +1,35 @@
+package study.datajpa;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 테스트는 개발 DB 를 함께 쓰므로 ddl-auto: create 때처럼 매번 스키마를 지우고 다시 만든다.
+ * replica 가 켜져 있으면 replica 도 같은 마이그레이션으로 맞춰 primary 의 복제본처럼 만든다.
+ * 테스트 클래스패스에만 있으므로 애플리케이션 실행에는 영향이 없다.
+ */
+@Configuration
+public class CleanMigrateConfig {
+
+	@Bean
+	public FlywayMigrationStrategy cleanMigrate(@Qualifier("replicaDataSource") ObjectProvider<DataSource> replica) {
+		return flyway -> {
+			cleanMigrate(flyway);
+			replica.ifAvailable(dataSource -> cleanMigrate(Flyway.configure()
+				.configuration(flyway.getConfiguration())
+				.dataSource(dataSource)
+				.load()));
+		};
+	}
+
+	private static void cleanMigrate(Flyway flyway) {
+		flyway.clean();
+		flyway.migrate();
+	}
+}
@@ -0,0 +1,76 @@
+package study.datajpa.cache;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import study.datajpa.entity.MemberChangedEvent;
+
+class CountCacheTest {
+
+	private static final String QUERY = "select count(m) from Member m where m.age = :age";
+
+	@AfterEach
+	void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	public void invalidateOnceAfterCommit() {
+		// given
+		CountCache cache = new CountCache(Duration.ofMinutes(1), 100);
+		AtomicLong rows = new AtomicLong(1);
+		AtomicLong loads = new AtomicLong();
+		cache.get(QUERY, List.of(10), () -> load(rows, loads));
+		TransactionSynchronizationManager.initSynchronization();
+
+		// when
+		for (int i = 0; i < 3; i++) {
+			cache.onMemberChanged(MemberChangedEvent.of((long) i));
+		}
+		rows.set(4);
+		long beforeCommit = cache.get(QUERY, List.of(10), () -> load(rows, loads));
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+		long afterCommit = cache.get(QUERY, List.of(10), () -> load(rows, loads));
+
+		// then
+		assertThat(synchronizations).hasSize(1);
+		assertThat(beforeCommit).isEqualTo(1);
+		assertThat(afterCommit).isEqualTo(4);
+		assertThat(loads.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void rollbackKeepsCachedCount() {
+		// given
+		CountCache cache = new CountCache(Duration.ofMinutes(1), 100);
+		AtomicLong rows = new AtomicLong(1);
+		AtomicLong loads = new AtomicLong();
+		cache.get(QUERY, List.of(10), () -> load(rows, loads));
+		TransactionSynchronizationManager.initSynchronization();
+
+		// when
+		cache.onMemberChanged(MemberChangedEvent.of(1L));
+		TransactionSynchronizationManager.getSynchronizations()
+			.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+		cache.get(QUERY, List.of(10), () -> load(rows, loads));
+
+		// then
+		assertThat(loads.get()).isEqualTo(1);
+	}
+
+	private static long load(AtomicLong rows, AtomicLong loads) {
+		loads.incrementAndGet();
+		return rows.get();
+	}
+}
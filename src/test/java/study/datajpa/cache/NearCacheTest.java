@@ -0,0 +1,133 @@
+package study.datajpa.cache;
+
+import static java.util.concurrent.TimeUnit.*;
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class NearCacheTest {
+
+	@Test
+	public void singleFlight() throws Exception {
+		// given
+		NearCache<Long, String> cache = new NearCache<>(100, Duration.ofMinutes(1));
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+
+		// when
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			results.add(executor.submit(() -> {
+				start.await();
+				return cache.get(1L, id -> {
+					loads.incrementAndGet();
+					sleep(100);
+					return "member" + id;
+				});
+			}));
+		}
+		start.countDown();
+
+		// then
+		for (Future<String> result : results) {
+			assertThat(result.get()).isEqualTo("member1");
+		}
+		assertThat(loads.get()).isEqualTo(1);
+		executor.shutdown();
+	}
+
+	@Test
+	public void expireAndInvalidate() {
+		// given
+		NearCache<Long, String> cache = new NearCache<>(100, Duration.ofMinutes(1));
+		AtomicInteger loads = new AtomicInteger();
+
+		// when
+		cache.get(1L, id -> "v" + loads.incrementAndGet(), Duration.ZERO);
+		String reloaded = cache.get(1L, id -> "v" + loads.incrementAndGet());
+		String cached = cache.get(1L, id -> "v" + loads.incrementAndGet());
+		cache.invalidate(1L);
+		String invalidated = cache.get(1L, id -> "v" + loads.incrementAndGet());
+
+		// then
+		assertThat(reloaded).isEqualTo("v2");
+		assertThat(cached).isEqualTo("v2");
+		assertThat(invalidated).isEqualTo("v3");
+	}
+
+	@Test
+	public void failureIsNotCached() {
+		NearCache<Long, String> cache = new NearCache<>(100, Duration.ofMinutes(1));
+
+		assertThatThrownBy(() -> cache.get(1L, id -> {
+			throw new IllegalStateException("boom");
+		})).isInstanceOf(IllegalStateException.class);
+		assertThat(cache.get(1L, id -> "ok")).isEqualTo("ok");
+	}
+
+	@Test
+	public void errorReleasesWaiters() throws Exception {
+		// given
+		NearCache<Long, String> cache = new NearCache<>(100, Duration.ofMinutes(1));
+		CountDownLatch loading = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		// when
+		Future<String> loader = executor.submit(() -> cache.get(1L, id -> {
+			loading.countDown();
+			sleep(100);
+			throw new StackOverflowError("boom");
+		}));
+		loading.await();
+		Future<String> waiter = executor.submit(() -> cache.get(1L, id -> "unused"));
+
+		// then
+		assertThatThrownBy(() -> loader.get(5, SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+		assertThatThrownBy(() -> waiter.get(5, SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+		assertThat(cache.get(1L, id -> "ok")).isEqualTo("ok");
+		executor.shutdown();
+	}
+
+	@Test
+	public void bounded() {
+		NearCache<Long, String> cache = new NearCache<>(10, Duration.ofMinutes(1));
+
+		for (long i = 0; i < 100; i++) {
+			cache.get(i, String::valueOf);
+		}
+
+		assertThat(cache.size()).isLessThanOrEqualTo(10);
+	}
+
+	@Test
+	public void hotEntrySurvivesEviction() {
+		NearCache<Long, String> cache = new NearCache<>(10, Duration.ofMinutes(1));
+		AtomicInteger hotLoads = new AtomicInteger();
+
+		for (long i = 1; i <= 1000; i++) {
+			cache.get(0L, id -> "hot" + hotLoads.incrementAndGet());
+			cache.get(i, String::valueOf);
+		}
+
+		assertThat(hotLoads.get()).isEqualTo(1);
+		assertThat(cache.size()).isLessThanOrEqualTo(10);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
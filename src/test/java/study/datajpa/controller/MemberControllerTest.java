@@ -0,0 +1,58 @@
+package study.datajpa.controller;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 내보내기는 별도 스레드에서 커밋된 초기 데이터(user0..99)를 읽으므로 테스트 트랜잭션을 쓰지 않는다.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberControllerTest {
+
+	@Autowired
+	MockMvc mockMvc;
+	@Autowired
+	ObjectMapper objectMapper;
+	@Value("${datajpa.export.timeout}")
+	Duration exportTimeout;
+
+	@Test
+	public void export() throws Exception {
+		// given
+		MvcResult started = mockMvc.perform(get("/members/export"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		// when
+		started.getAsyncResult();
+		MvcResult result = mockMvc.perform(asyncDispatch(started))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType("application/x-ndjson"))
+			.andReturn();
+
+		// then
+		assertThat(started.getRequest().getAsyncContext().getTimeout()).isEqualTo(exportTimeout.toMillis());
+		List<String> lines = Arrays.asList(result.getResponse().getContentAsString(UTF_8).split("\n"));
+		assertThat(lines).hasSizeGreaterThanOrEqualTo(100);
+		for (String line : lines) {
+			assertThat(objectMapper.readTree(line).path("username").asText()).isNotBlank();
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package study.datajpa.datasource;
+
+import static org.assertj.core.api.Assertions.*;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * lag-query 가 max-lag 보다 큰 지연을 돌려주면 읽기 전용 트랜잭션도 primary 로 가야 한다.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:lagging-primary;DB_CLOSE_DELAY=-1",
+	"datajpa.datasource.replica.enabled=true",
+	"datajpa.datasource.replica.url=jdbc:h2:mem:lagging-replica;DB_CLOSE_DELAY=-1",
+	"datajpa.datasource.replica.lag-query=select 60",
+	"datajpa.datasource.replica.max-lag=5s"
+})
+class ReplicaLagFallbackTest {
+
+	@PersistenceContext
+	EntityManager em;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+	@Autowired
+	ReplicaLagMonitor lagMonitor;
+
+	@Test
+	public void readsFallBackToPrimaryWhenReplicaLags() {
+		// given
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+
+		// when
+		lagMonitor.check();
+		String readUrl = readOnly.execute(status ->
+			em.unwrap(Session.class).doReturningWork(connection -> connection.getMetaData().getURL()));
+
+		// then
+		assertThat(lagMonitor.isAvailable()).isFalse();
+		assertThat(readUrl).contains("lagging-primary");
+	}
+}
@@ -0,0 +1,122 @@
+package study.datajpa.datasource;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import study.datajpa.cache.MemberNearCache;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * primary 와 replica 를 서로 다른 메모리 H2 로 띄우고 트랜잭션마다 어느 쪽 커넥션을 받는지 확인한다.
+ * replica 에는 스키마만 있고 데이터는 primary 에만 쓰인다.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+	"datajpa.datasource.replica.enabled=true",
+	"datajpa.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+	"datajpa.datasource.replica.lag-query=select 0"
+})
+class ReplicaRoutingTest {
+
+	@PersistenceContext
+	EntityManager em;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+	@Autowired
+	ReplicaLagMonitor lagMonitor;
+	@Autowired
+	Flyway flyway;
+	@Autowired
+	MemberNearCache memberNearCache;
+	@Autowired
+	MemberRepository memberRepository;
+	@Autowired
+	@Qualifier("replicaDataSource")
+	DataSource replicaDataSource;
+
+	@Test
+	public void routesByTransactionReadOnly() {
+		// given
+		TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+
+		// when
+		String writeUrl = readWrite.execute(status -> connectionUrl());
+		String readUrl = readOnly.execute(status -> connectionUrl());
+
+		// then
+		assertThat(writeUrl).contains("routing-primary");
+		assertThat(readUrl).contains("routing-replica");
+	}
+
+	@Test
+	public void nearCacheLoadsFromPrimary() {
+		// given
+		TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+		Long id = readWrite.execute(status -> memberRepository.save(new Member("routed", 10)).getId());
+
+		// when
+		MemberDto member = memberNearCache.get(id);
+
+		// then
+		assertThat(member.getUsername()).isEqualTo("routed");
+	}
+
+	@Test
+	public void rejectsReplicaWithDifferentSchema() {
+		// given
+		DataSource empty = new DriverManagerDataSource("jdbc:h2:mem:routing-empty;DB_CLOSE_DELAY=-1");
+
+		// when
+		ReplicaSchemaVerifier verifier = new ReplicaSchemaVerifier(flyway, empty);
+
+		// then
+		assertThatThrownBy(verifier::afterSingletonsInstantiated)
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessageContaining("copy of the primary");
+		new ReplicaSchemaVerifier(flyway, replicaDataSource).afterSingletonsInstantiated();
+	}
+
+	@Test
+	public void fallsBackToPrimaryWhenReplicaLags() {
+		// given
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		ReplicaLagMonitor lagging = new ReplicaLagMonitor(new JdbcTemplate(replicaDataSource), "select 60",
+			Duration.ofSeconds(5));
+
+		// when
+		lagging.check();
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(lagging);
+		Object key = readOnly.execute(status -> routing.determineCurrentLookupKey());
+
+		// then
+		assertThat(lagging.isAvailable()).isFalse();
+		assertThat(key).isEqualTo(DataSourceRole.PRIMARY);
+		assertThat(lagMonitor.isAvailable()).isTrue();
+	}
+
+	private String connectionUrl() {
+		return em.unwrap(Session.class).doReturningWork(connection -> connection.getMetaData().getURL());
+	}
+}
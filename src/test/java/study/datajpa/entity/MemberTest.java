@@ -9,6 +9,10 @@ import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
 import javax.persistence.PersistenceContext;
 
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -52,6 +56,74 @@ class MemberTest {
 		}
 	}
 
+	@Test
+	public void teamSecondLevelCache() {
+		// given
+		Team team = new Team("cachedTeam");
+		em.persist(team);
+		em.persist(new Member("member1", 10, team));
+		em.flush();
+		em.clear();
+
+		Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		em.find(Team.class, team.getId()).getMembers().size();
+		em.clear();
+		long hitCount = statistics.getSecondLevelCacheHitCount();
+
+		// when
+		Team foundTeam = em.find(Team.class, team.getId());
+		int memberCount = foundTeam.getMembers().size();
+
+		// then
+		assertEquals(1, memberCount);
+		assertTrue(statistics.getSecondLevelCacheHitCount() > hitCount);
+	}
+
+	@Test
+	public void evictOnlyChangedTeamMembers() {
+		// given
+		Team teamA = new Team("teamA");
+		Team teamB = new Team("teamB");
+		em.persist(teamA);
+		em.persist(teamB);
+		Member member = new Member("member1", 10, teamA);
+		em.persist(member);
+		em.persist(new Member("member2", 20, teamB));
+		em.flush();
+		em.clear();
+		loadMembers(teamA, teamB);
+		CollectionStatistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics()
+			.getCollectionStatistics("study.datajpa.entity.Team.members");
+
+		// when
+		long hits = statistics.getCacheHitCount();
+		em.find(Member.class, member.getId()).setAge(11);
+		em.flush();
+		em.clear();
+		loadMembers(teamA, teamB);
+		long hitsAfterAgeChange = statistics.getCacheHitCount() - hits;
+
+		long misses = statistics.getCacheMissCount();
+		em.find(Member.class, member.getId()).changeTeam(em.find(Team.class, teamB.getId()));
+		em.flush();
+		em.clear();
+		loadMembers(teamA, teamB);
+		long missesAfterTeamChange = statistics.getCacheMissCount() - misses;
+
+		// then
+		assertEquals(2, hitsAfterAgeChange);
+		assertEquals(2, missesAfterTeamChange);
+		assertEquals(0, em.find(Team.class, teamA.getId()).getMembers().size());
+		assertEquals(2, em.find(Team.class, teamB.getId()).getMembers().size());
+	}
+
+	private void loadMembers(Team... teams) {
+		for (Team team : teams) {
+			em.find(Team.class, team.getId()).getMembers().size();
+		}
+		em.clear();
+	}
+
 	@Test
 	public void JpaEventBaseEntity() throws Exception {
 		// given
@@ -75,4 +147,49 @@ class MemberTest {
 		System.out.println("foundMember.getLastModifiedBy = " + foundMember.getLastModifiedBy());
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void changeTeamKeepsMembersLazy() {
+		// given
+		Team teamA = new Team("teamA");
+		Team teamB = new Team("teamB");
+		em.persist(teamA);
+		em.persist(teamB);
+		Member member = new Member("member1", 10, teamA);
+		em.persist(member);
+		em.persist(new Member("member2", 20, teamA));
+		em.flush();
+		em.clear();
+
+		// when
+		Member found = em.find(Member.class, member.getId());
+		Team oldTeam = found.getTeam();
+		Team newTeam = em.find(Team.class, teamB.getId());
+		found.changeTeam(newTeam);
+		em.flush();
+
+		// then
+		assertFalse(Hibernate.isInitialized(oldTeam.getMembers()));
+		assertFalse(Hibernate.isInitialized(newTeam.getMembers()));
+		em.clear();
+		assertEquals(1, em.find(Team.class, teamA.getId()).getMembers().size());
+		assertEquals("teamB", em.find(Member.class, member.getId()).getTeam().getName());
+	}
+
+	@Test
+	public void auditorSharedInTransaction() {
+		// given
+		Member member1 = memberRepository.save(new Member("audit1"));
+		Member member2 = memberRepository.save(new Member("audit2"));
+
+		// when
+		em.flush();
+
+		// then
+		assertNotNull(member1.getCreatedDate());
+		assertNotNull(member1.getCreatedBy());
+		assertFalse(member2.getCreatedDate().isBefore(member1.getCreatedDate()));
+		assertEquals(member1.getCreatedBy(), member2.getCreatedBy());
+		assertEquals(member1.getCreatedDate(), member1.getLastModifiedDate());
+	}
+
+}
@@ -0,0 +1,72 @@
+package study.datajpa.logging;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+
+/**
+ * writer 스레드를 시작하지 않아 기록이 버퍼에 남으므로 getPending 으로 기록 여부를 확인한다.
+ */
+class AsyncSqlLoggerTest {
+
+	private static final List<QueryInfo> QUERY = List.of(new QueryInfo("select 1"));
+
+	@Test
+	public void slowQueryIsAlwaysLogged() {
+		// given
+		AsyncSqlLogger logger = new AsyncSqlLogger(0.0, Duration.ofMillis(200), 100, false, true);
+
+		// when
+		logger.afterQuery(execution(10, true), QUERY);
+		logger.afterQuery(execution(500, true), QUERY);
+		logger.afterQuery(execution(10, false), QUERY);
+
+		// then
+		assertThat(logger.getPending()).isEqualTo(2);
+	}
+
+	@Test
+	public void sampleRate() {
+		// given
+		AsyncSqlLogger none = new AsyncSqlLogger(0.0, Duration.ofSeconds(1), 20_000, false, true);
+		AsyncSqlLogger all = new AsyncSqlLogger(1.0, Duration.ofSeconds(1), 20_000, false, true);
+		AsyncSqlLogger tenth = new AsyncSqlLogger(0.1, Duration.ofSeconds(1), 20_000, false, true);
+
+		// when
+		for (int i = 0; i < 10_000; i++) {
+			none.afterQuery(execution(1, true), QUERY);
+			all.afterQuery(execution(1, true), QUERY);
+			tenth.afterQuery(execution(1, true), QUERY);
+		}
+
+		// then
+		assertThat(none.getPending()).isZero();
+		assertThat(all.getPending()).isEqualTo(10_000);
+		assertThat(tenth.getPending()).isBetween(800, 1200);
+	}
+
+	@Test
+	public void dropOldestWhenFull() {
+		AsyncSqlLogger logger = new AsyncSqlLogger(1.0, Duration.ofSeconds(1), 10, false, true);
+
+		for (int i = 0; i < 15; i++) {
+			logger.afterQuery(execution(1, true), QUERY);
+		}
+
+		assertThat(logger.getPending()).isEqualTo(10);
+		assertThat(logger.getDropped()).isEqualTo(5);
+	}
+
+	private static ExecutionInfo execution(long elapsedMillis, boolean success) {
+		ExecutionInfo execution = new ExecutionInfo();
+		execution.setElapsedTime(elapsedMillis);
+		execution.setSuccess(success);
+		return execution;
+	}
+}
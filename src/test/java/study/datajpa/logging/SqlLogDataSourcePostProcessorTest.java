@@ -0,0 +1,52 @@
+package study.datajpa.logging;
+
+import static org.assertj.core.api.Assertions.*;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+
+@SpringBootTest
+class SqlLogDataSourcePostProcessorTest {
+
+	@Autowired
+	DataSource dataSource;
+	@Autowired
+	SqlLogDataSourcePostProcessor postProcessor;
+
+	@Test
+	public void wrapsDataSourceOnce() {
+		// given
+		int proxies = 0;
+		DataSource current = dataSource;
+
+		// when
+		while (current != null) {
+			if (current instanceof ProxyDataSource) {
+				proxies++;
+				current = ((ProxyDataSource) current).getDataSource();
+			} else if (current instanceof DelegatingDataSource) {
+				current = ((DelegatingDataSource) current).getTargetDataSource();
+			} else {
+				current = null;
+			}
+		}
+
+		// then
+		assertThat(proxies).isEqualTo(1);
+	}
+
+	@Test
+	public void skipsAlreadyWrappedDataSource() {
+		Object wrapped = postProcessor.postProcessAfterInitialization(dataSource, "dataSource");
+		Object rewrapped = postProcessor.postProcessAfterInitialization(wrapped, "dataSource");
+
+		assertThat(rewrapped).isSameAs(wrapped);
+		assertThat(postProcessor.postProcessAfterInitialization(dataSource, "otherDataSource")).isSameAs(dataSource);
+	}
+}
@@ -0,0 +1,39 @@
+package study.datajpa.metrics;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import study.datajpa.repository.MemberRepository;
+
+@SpringBootTest
+class ConnectionHoldTimeDataSourceTest {
+
+	@Autowired
+	MemberRepository memberRepository;
+	@Autowired
+	MeterRegistry registry;
+
+	@Test
+	public void recordsHoldTime() {
+		// given
+		long before = holdCount();
+
+		// when
+		memberRepository.count();
+
+		// then
+		assertThat(holdCount()).isGreaterThan(before);
+	}
+
+	private long holdCount() {
+		Timer timer = registry.find("datasource.connection.hold")
+			.tag("endpoint", "none")
+			.timer();
+		return timer == null ? 0 : timer.count();
+	}
+}
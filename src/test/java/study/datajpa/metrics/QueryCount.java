@@ -0,0 +1,33 @@
+package study.datajpa.metrics;
+
+/**
+ * 테스트에서 코드 블록이 실행하는 SQL 문 수를 검증한다.
+ * <pre>
+ * QueryCount.assertAtMost(2, () -> memberRepository.findMemberFetchJoin());
+ * </pre>
+ */
+public final class QueryCount {
+
+	private QueryCount() {
+	}
+
+	public static long count(Runnable block) {
+		long before = StatementCounter.current();
+		block.run();
+		return StatementCounter.current() - before;
+	}
+
+	public static void assertAtMost(long max, Runnable block) {
+		long statements = count(block);
+		if (statements > max) {
+			throw new AssertionError("expected at most " + max + " statements but " + statements + " were issued");
+		}
+	}
+
+	public static void assertExactly(long expected, Runnable block) {
+		long statements = count(block);
+		if (statements != expected) {
+			throw new AssertionError("expected " + expected + " statements but " + statements + " were issued");
+		}
+	}
+}
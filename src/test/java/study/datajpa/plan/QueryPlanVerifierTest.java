@@ -0,0 +1,67 @@
+package study.datajpa.plan;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import study.datajpa.metrics.ObservedStatements;
+import study.datajpa.plan.QueryPlanFinding.Kind;
+import study.datajpa.repository.MemberRepository;
+
+@SpringBootTest(properties = "datajpa.query-verifier.enabled=true")
+class QueryPlanVerifierTest {
+
+	@Autowired
+	QueryPlanVerifier verifier;
+	@Autowired
+	MemberRepository memberRepository;
+
+	@BeforeEach
+	public void resetObserved() {
+		ObservedStatements.reset();
+	}
+
+	@Test
+	public void declaredQueriesHaveNoCartesianJoin() {
+		assertThat(verifier.verifyDeclared())
+			.filteredOn(finding -> finding.getKind() == Kind.CARTESIAN_JOIN)
+			.isEmpty();
+	}
+
+	@Test
+	public void detectsJoinWithoutCondition() {
+		assertThat(verifier.verify("test", "select * from member m left join team t"))
+			.extracting(QueryPlanFinding::getKind)
+			.contains(Kind.CARTESIAN_JOIN);
+		assertThat(QueryPlanVerifier.hasJoinWithoutCondition(
+			"select * from member m left join team t on m.team_id = t.team_id where m.age = ?")).isFalse();
+	}
+
+	@Test
+	public void crossJoinIsNotReported() {
+		assertThat(QueryPlanVerifier.hasJoinWithoutCondition(
+			"select * from member m cross join team t where m.team_id = t.team_id")).isFalse();
+		assertThat(QueryPlanVerifier.hasJoinWithoutCondition(
+			"select * from member m cross join team t inner join member o where o.age = ?")).isTrue();
+	}
+
+	@Test
+	public void verifiesObservedDerivedQueries() {
+		// given
+		memberRepository.findByUsername("user1");
+
+		// when
+		List<QueryPlanFinding> findings = verifier.verifyObserved();
+
+		// then
+		assertThat(ObservedStatements.snapshot()).anyMatch(sql -> sql.contains("username=?"));
+		assertThat(findings).noneMatch(finding -> finding.getKind() == Kind.CARTESIAN_JOIN);
+		assertThat(findings).noneMatch(finding -> finding.getKind() == Kind.UNINDEXED_PREDICATE
+			&& finding.getSql().endsWith("username=?"));
+	}
+}
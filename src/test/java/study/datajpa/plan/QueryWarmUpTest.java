@@ -0,0 +1,44 @@
+package study.datajpa.plan;
+
+import static org.assertj.core.api.Assertions.*;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import study.datajpa.repository.MemberRepository;
+
+@SpringBootTest
+class QueryWarmUpTest {
+
+	@Autowired
+	MeterRegistry registry;
+	@Autowired
+	EntityManagerFactory emf;
+	@Autowired
+	MemberRepository memberRepository;
+
+	@Test
+	public void warmsUpBeforeReady() {
+		// given
+		Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+		long misses = statistics.getQueryPlanCacheMissCount();
+		long hits = statistics.getQueryPlanCacheHitCount();
+
+		// when
+		memberRepository.findUser("user1", 0);
+		memberRepository.findByUsername("user1");
+
+		// then
+		assertThat(registry.find("startup.warmup").timers())
+			.extracting(timer -> timer.getId().getTag("phase"))
+			.contains("plans", "queries");
+		assertThat(statistics.getQueryPlanCacheMissCount()).isEqualTo(misses);
+		assertThat(statistics.getQueryPlanCacheHitCount()).isGreaterThan(hits);
+	}
+}
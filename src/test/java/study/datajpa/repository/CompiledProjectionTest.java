@@ -0,0 +1,84 @@
+package study.datajpa.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class CompiledProjectionTest {
+
+	@Test
+	public void defaultMethodIsInvoked() {
+		// given
+		CompiledProjection<UsernameLabel> projection = CompiledProjection.of(UsernameLabel.class);
+
+		// when
+		UsernameLabel result = projection.create(new Object[] {"m1"});
+
+		// then
+		assertThat(projection.selectClause("m")).isEqualTo("select m.username");
+		assertThat(result.getLabel()).isEqualTo("[m1]");
+	}
+
+	@Test
+	public void booleanGetter() {
+		CompiledProjection<Flag> projection = CompiledProjection.of(Flag.class);
+
+		assertThat(projection.selectClause("m")).isEqualTo("select m.active");
+		assertThat(projection.create(new Object[] {true}).isActive()).isTrue();
+	}
+
+	@Test
+	public void rejectNonGetterName() {
+		assertThatThrownBy(() -> CompiledProjection.of(RecordStyle.class))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("username()");
+	}
+
+	@Test
+	public void rejectMethodWithParameters() {
+		assertThatThrownBy(() -> CompiledProjection.of(WithParameter.class))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("without parameters");
+	}
+
+	@Test
+	public void rejectNestedProjection() {
+		assertThatThrownBy(() -> CompiledProjection.of(WithTeam.class))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("nested projection");
+	}
+
+	public interface UsernameLabel {
+
+		String getUsername();
+
+		default String getLabel() {
+			return "[" + getUsername() + "]";
+		}
+	}
+
+	public interface Flag {
+
+		boolean isActive();
+	}
+
+	public interface RecordStyle {
+
+		String username();
+	}
+
+	public interface WithParameter {
+
+		String getUsername(String prefix);
+	}
+
+	public interface WithTeam {
+
+		TeamName getTeam();
+
+		interface TeamName {
+
+			String getName();
+		}
+	}
+}
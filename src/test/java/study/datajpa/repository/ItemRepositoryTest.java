@@ -1,12 +1,11 @@
 package study.datajpa.repository;
 
-import static org.junit.jupiter.api.Assertions.*;
-
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import study.datajpa.entity.Item;
+import study.datajpa.metrics.QueryCount;
 
 @SpringBootTest
 class ItemRepositoryTest {
@@ -16,8 +15,11 @@ class ItemRepositoryTest {
 
 	@Test
 	public void save() {
-		Item item = new Item();
-		itemRepository.save(item);
+		// given
+		Item item = new Item("A");
+
+		// when then: merge 의 SELECT 없이 INSERT 한 번
+		QueryCount.assertExactly(1, () -> itemRepository.save(item));
 	}
 
-}
\ No newline at end of file
+}
@@ -100,6 +100,23 @@ class MemberJpaRepositoryTest {
 		assertThat(totalCount).isEqualTo(10);
 	}
 
+	@Test
+	public void keysetPaging() {
+		// given
+		for (int i = 0; i < 10; i++) {
+			memberJpaRepository.save(new Member("member" + i, 200));
+		}
+
+		// when
+		List<Member> firstPage = memberJpaRepository.findByKeyset(200, null, null, 3);
+		Member last = firstPage.get(firstPage.size() - 1);
+		List<Member> secondPage = memberJpaRepository.findByKeyset(200, last.getUsername(), last.getId(), 3);
+
+		// then
+		assertThat(firstPage).extracting("username").containsExactly("member9", "member8", "member7");
+		assertThat(secondPage).extracting("username").containsExactly("member6", "member5", "member4");
+	}
+
 	@Test
 	public void bulkUpTest() {
 		// given
@@ -1,28 +1,49 @@
 package study.datajpa.repository;
 
+import static java.util.concurrent.TimeUnit.*;
 import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
 import static org.springframework.data.domain.Sort.*;
 import static org.springframework.data.domain.Sort.Direction.*;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
+import javax.persistence.LockModeType;
 import javax.persistence.PersistenceContext;
 
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.TeamStatsDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.metrics.QueryCount;
 
 @SpringBootTest
 @Transactional
@@ -32,6 +53,12 @@ class MemberRepositoryTest {
 	MemberRepository memberRepository;
 	@Autowired
 	TeamRepository teamRepository;
+	@Autowired
+	PlatformTransactionManager transactionManager;
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	@Value("${datajpa.claim.lock-timeout}")
+	Duration claimLockTimeout;
 
 	@PersistenceContext
 	EntityManager em;
@@ -145,6 +172,45 @@ class MemberRepositoryTest {
 		}
 	}
 
+	@Test
+	public void findTeamStats() {
+		// given
+		Team team = new Team("teamA");
+		teamRepository.save(team);
+		Member member1 = memberRepository.save(new Member("AAA", 10, team));
+		memberRepository.save(new Member("BBB", 20, team));
+		em.flush();
+		em.clear();
+
+		// when
+		MemberDto member = memberRepository.findMemberDtoById(member1.getId()).orElseThrow();
+		TeamStatsDto stats = teamRepository.findStatsByMemberId(member1.getId()).orElseThrow();
+
+		// then
+		assertThat(member.getTeamName()).isEqualTo("teamA");
+		assertThat(stats.getMemberCount()).isEqualTo(2);
+		assertThat(stats.getAverageAge()).isEqualTo(15.0);
+	}
+
+	@Test
+	public void streamMemberDto() {
+		// given
+		Team team = new Team("teamA");
+		teamRepository.save(team);
+		memberRepository.save(new Member("stream1", 10, team));
+		memberRepository.save(new Member("stream2", 20));
+
+		// when
+		List<MemberDto> result;
+		try (Stream<MemberDto> stream = memberRepository.streamMemberDto()) {
+			result = stream.filter(dto -> dto.getUsername().startsWith("stream"))
+				.collect(Collectors.toList());
+		}
+
+		// then
+		assertThat(result).extracting("teamName").containsExactlyInAnyOrder("teamA", null);
+	}
+
 	@Test
 	public void findByNames() {
 		Member member1 = new Member("AAA", 10);
@@ -158,6 +224,40 @@ class MemberRepositoryTest {
 		}
 	}
 
+	@Test
+	public void findByNamesLargeLists() {
+		// given
+		memberRepository.save(new Member("AAA", 10));
+		memberRepository.save(new Member("BBB", 20));
+		List<String> chunked = IntStream.range(0, 1000).mapToObj(i -> "none" + i).collect(Collectors.toList());
+		chunked.addAll(List.of("AAA", "BBB", "AAA"));
+		List<String> staged = IntStream.range(0, 5000).mapToObj(i -> "none" + i).collect(Collectors.toList());
+		staged.addAll(List.of("AAA", "BBB"));
+
+		// when
+		List<Member> chunkedResult = memberRepository.findByNames(chunked);
+		List<Member> stagedResult = memberRepository.findByNames(staged);
+
+		// then
+		assertThat(chunkedResult).extracting("username").containsExactlyInAnyOrder("AAA", "BBB");
+		assertThat(stagedResult).extracting("username").containsExactlyInAnyOrder("AAA", "BBB");
+	}
+
+	@Test
+	@Transactional(readOnly = true)
+	public void findByStagedNamesInReadOnlyTransaction() {
+		// given
+		List<String> staged = IntStream.range(0, 5000).mapToObj(i -> "none" + i).collect(Collectors.toList());
+		staged.addAll(List.of("user1", "user2"));
+
+		// when
+		List<Member> result = memberRepository.findByNames(staged);
+
+		// then
+		assertThat(result).extracting("username").containsExactlyInAnyOrder("user1", "user2");
+		assertThat(jdbcTemplate.queryForObject("select count(*) from member_name_filter", Long.class)).isZero();
+	}
+
 	@Test
 	public void paging() {
 		// given
@@ -186,6 +286,96 @@ class MemberRepositoryTest {
 		assertThat(page.hasNext()).isEqualTo(true);
 	}
 
+	@Test
+	public void memberDtoPage() {
+		// given
+		Team team = new Team("teamA");
+		teamRepository.save(team);
+		for (int i = 0; i < 3; i++) {
+			memberRepository.save(new Member("dto" + i, 400, team));
+		}
+		em.flush();
+		em.clear();
+
+		// when
+		Page<MemberDto> page = memberRepository.findMemberDtoPage(PageRequest.of(0, 2, by(DESC, "id")));
+
+		// then
+		assertThat(page.getContent()).hasSize(2);
+		assertThat(page.getContent()).extracting("teamName").containsOnly("teamA");
+		assertThat(page.getTotalElements()).isEqualTo(memberRepository.count());
+	}
+
+	@Test
+	public void slicePaging() {
+		// given
+		for (int i = 0; i < 10; i++) {
+			memberRepository.save(new Member("member" + (i + 1), 200));
+		}
+
+		// when
+		Slice<Member> slice = memberRepository.findSliceByAge(200, PageRequest.of(0, 3, by(DESC, "username")));
+
+		// then
+		assertThat(slice.getContent().size()).isEqualTo(3);
+		assertThat(slice.hasNext()).isTrue();
+	}
+
+	@Test
+	public void cachedCountPaging() {
+		// given
+		for (int i = 0; i < 10; i++) {
+			memberRepository.save(new Member("member" + (i + 1), 200));
+		}
+		PageRequest pageRequest = PageRequest.of(0, 3, by(DESC, "username"));
+		memberRepository.findByAgeWithCachedCount(200, pageRequest);
+
+		// when
+		memberRepository.save(new Member("member11", 200));
+		Page<Member> page = memberRepository.findByAgeWithCachedCount(200, pageRequest);
+
+		// then
+		assertThat(page.getContent()).extracting("username").containsExactly("member9", "member8", "member7");
+		assertThat(page.getTotalElements()).isEqualTo(11);
+	}
+
+	@Test
+	public void keysetPaging() {
+		// given
+		for (int i = 0; i < 10; i++) {
+			memberRepository.save(new Member("keyset" + i, 10));
+		}
+		Member first = memberRepository.findByUsername("keyset0").get(0);
+
+		// when
+		List<Member> byId = memberRepository.findByIdGreaterThanOrderByIdAsc(first.getId(), PageRequest.ofSize(3));
+		List<Member> byUsername = memberRepository.findNextByUsername("keyset3", first.getId(), PageRequest.ofSize(3));
+
+		// then
+		assertThat(byId).extracting("username").containsExactly("keyset1", "keyset2", "keyset3");
+		assertThat(byUsername).extracting("username").containsExactly("keyset3", "keyset4", "keyset5");
+	}
+
+	@Test
+	public void keysetPagingByUsernameSkipsNullUsernames() {
+		// given
+		memberRepository.deleteAllInBatch();
+		memberRepository.save(new Member(null, 10));
+		for (int i = 0; i < 4; i++) {
+			memberRepository.save(new Member("keyset" + i, 10));
+		}
+		memberRepository.save(new Member(null, 10));
+
+		// when
+		List<Member> firstPage = memberRepository.findByUsernameNotNullOrderByUsernameAscIdAsc(PageRequest.ofSize(2));
+		Member last = firstPage.get(firstPage.size() - 1);
+		List<Member> nextPage = memberRepository.findNextByUsername(last.getUsername(), last.getId(), PageRequest.ofSize(2));
+
+		// then
+		assertThat(firstPage).extracting("username").containsExactly("keyset0", "keyset1");
+		assertThat(nextPage).extracting("username").containsExactly("keyset2", "keyset3");
+	}
+
 	@Test
 	public void bulkUpTest() {
 		// given
@@ -257,6 +447,28 @@ class MemberRepositoryTest {
 		}
 	}
 
+	@Test
+	public void detectNPlusOne() {
+		// given
+		Team teamA = new Team("teamA");
+		Team teamB = new Team("teamB");
+		teamRepository.save(teamA);
+		teamRepository.save(teamB);
+		memberRepository.save(new Member("member1", 10, teamA));
+		memberRepository.save(new Member("member2", 10, teamB));
+		em.flush();
+		em.clear();
+		List<String> names = Arrays.asList("member1", "member2");
+
+		// when, then
+		assertThatThrownBy(() -> QueryCount.assertAtMost(1, () ->
+			memberRepository.findByNames(names).forEach(member -> member.getTeam().getName())))
+			.isInstanceOf(AssertionError.class);
+		em.clear();
+		QueryCount.assertExactly(1, () ->
+			memberRepository.findMemberFetchJoin().forEach(member -> member.getUsername()));
+	}
+
 	@Test
 	public void findMemberEntityGraph() {
 		// given
@@ -310,6 +522,123 @@ class MemberRepositoryTest {
 		List<Member> result = memberRepository.findLockByUsername(member1.getUsername());
 	}
 
+	@Test
+	public void claim() {
+		// given
+		for (int i = 0; i < 5; i++) {
+			memberRepository.save(new Member("worker" + i, 300));
+		}
+		em.flush();
+		em.clear();
+
+		// when
+		List<Member> result = memberRepository.claim((m, query, cb) -> cb.equal(m.get("age"), 300), 3);
+
+		// then
+		assertThat(result).extracting("username").containsExactly("worker0", "worker1", "worker2");
+		assertThat(em.getLockMode(result.get(0))).isEqualTo(LockModeType.PESSIMISTIC_WRITE);
+	}
+
+	/**
+	 * 두 트랜잭션이 실제로 커밋된 행을 나눠 가져야 하므로 테스트 트랜잭션 없이 실행한다.
+	 * H2 방언은 SKIP LOCKED 를 지원하지 않아 건너뛴다.
+	 */
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void claimSkipsRowsLockedByAnotherTransaction() throws Exception {
+		assumeTrue(em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+			.getJdbcServices().getDialect().supportsSkipLocked(), "dialect does not support SKIP LOCKED");
+
+		// given
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		List<Long> ids = tx.execute(status -> IntStream.range(0, 5)
+			.mapToObj(i -> memberRepository.save(new Member("claimer" + i, 301)).getId())
+			.collect(Collectors.toList()));
+		CountDownLatch claimed = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		try {
+			// when
+			Future<List<String>> first = executor.submit(() -> tx.execute(status -> {
+				List<String> names = usernames(memberRepository.claim((m, query, cb) -> cb.equal(m.get("age"), 301), 3));
+				claimed.countDown();
+				await(release);
+				return names;
+			}));
+			claimed.await(5, SECONDS);
+			List<String> second = tx.execute(status ->
+				usernames(memberRepository.claim((m, query, cb) -> cb.equal(m.get("age"), 301), 3)));
+			release.countDown();
+
+			// then
+			assertThat(first.get(5, SECONDS)).containsExactly("claimer0", "claimer1", "claimer2");
+			assertThat(second).containsExactly("claimer3", "claimer4");
+		} finally {
+			release.countDown();
+			executor.shutdown();
+			tx.executeWithoutResult(status -> memberRepository.deleteAllById(ids));
+		}
+	}
+
+	/**
+	 * SKIP LOCKED 가 없는 방언(H2)에서는 두 번째 claim 이 건너뛰지 못하고 lock-timeout 만큼 기다린 뒤 실패해야 한다.
+	 */
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void claimFailsAfterLockTimeoutWithoutSkipLocked() throws Exception {
+		assumeFalse(em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+			.getJdbcServices().getDialect().supportsSkipLocked(), "dialect supports SKIP LOCKED");
+
+		// given
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		List<Long> ids = tx.execute(status -> IntStream.range(0, 5)
+			.mapToObj(i -> memberRepository.save(new Member("locked" + i, 302)).getId())
+			.collect(Collectors.toList()));
+		CountDownLatch claimed = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		try {
+			Future<List<String>> first = executor.submit(() -> tx.execute(status -> {
+				List<String> names = usernames(memberRepository.claim((m, query, cb) -> cb.equal(m.get("age"), 302), 3));
+				claimed.countDown();
+				await(release);
+				return names;
+			}));
+			claimed.await(5, SECONDS);
+
+			// when
+			long start = System.nanoTime();
+			Throwable thrown = catchThrowable(() -> tx.execute(status ->
+				memberRepository.claim((m, query, cb) -> cb.equal(m.get("age"), 302), 3)));
+			Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+			release.countDown();
+
+			// then
+			assertThat(thrown).isInstanceOf(PessimisticLockingFailureException.class);
+			assertThat(elapsed).isGreaterThanOrEqualTo(claimLockTimeout.multipliedBy(8).dividedBy(10))
+				.isLessThan(claimLockTimeout.plusSeconds(2));
+			assertThat(first.get(5, SECONDS)).containsExactly("locked0", "locked1", "locked2");
+		} finally {
+			release.countDown();
+			executor.shutdown();
+			tx.executeWithoutResult(status -> memberRepository.deleteAllById(ids));
+		}
+	}
+
+	private static List<String> usernames(List<Member> members) {
+		return members.stream().map(Member::getUsername).collect(Collectors.toList());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
 	@Test
 	public void callCustom() {
 		List<Member> result = memberRepository.findMemberCustom();
@@ -364,6 +693,38 @@ class MemberRepositoryTest {
 				System.out.println("usernameOnly => " + member.getUsername() + " " + member.getTeam().getName()));
 	}
 
+	@Test
+	public void dynamicProjections() {
+		// given
+		Team team = new Team("teamA");
+		em.persist(team);
+		em.persist(new Member("m1", 0, team));
+		em.flush();
+		em.clear();
+
+		// when
+		List<UsernameOnly> result = memberRepository.findAllProjectedBy(UsernameOnly.class);
+
+		// then
+		assertThat(result).extracting(UsernameOnly::getUsername).contains("m1 0");
+	}
+
+	@Test
+	public void compiledProjections() {
+		// given
+		Team team = new Team("teamA");
+		em.persist(team);
+		em.persist(new Member("m1", 0, team));
+		em.flush();
+		em.clear();
+
+		// when
+		List<UsernameOnly> result = memberRepository.findCompiledProjectionsByUsername("m1", UsernameOnly.class);
+
+		// then
+		assertThat(result).extracting(UsernameOnly::getUsername).containsExactly("m1 0");
+	}
+
 	@Test
 	public void NativeQuery() {
 		// given
@@ -0,0 +1,41 @@
+package study.datajpa.service;
+
+import static java.util.concurrent.TimeUnit.*;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.TeamStatsDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 조회가 다른 스레드에서 실행되므로 테스트 트랜잭션 없이 초기 데이터(user0..99)를 조회한다.
+ */
+@SpringBootTest
+class MemberAsyncQueryServiceTest {
+
+	@Autowired
+	MemberAsyncQueryService memberAsyncQueryService;
+	@Autowired
+	MemberRepository memberRepository;
+
+	@Test
+	public void findConcurrently() throws Exception {
+		// given
+		Member member = memberRepository.findByUsername("user1").get(0);
+
+		// when
+		Optional<MemberDto> dto = memberAsyncQueryService.findMemberDto(member.getId()).get(5, SECONDS);
+		Optional<TeamStatsDto> stats = memberAsyncQueryService.findTeamStats(member.getId()).get(5, SECONDS);
+
+		// then
+		assertThat(dto).map(MemberDto::getUsername).contains("user1");
+		assertThat(stats).isEmpty();
+	}
+}
@@ -0,0 +1,98 @@
+package study.datajpa.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import study.datajpa.dto.BulkUpdateResult;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.BulkUpdateCheckpointRepository;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 청크마다 별도 트랜잭션으로 커밋하므로 테스트 트랜잭션 없이 실행하고 직접 정리한다.
+ */
+@SpringBootTest
+class MemberBulkUpdateServiceTest {
+
+	@Autowired
+	MemberBulkUpdateService memberBulkUpdateService;
+	@Autowired
+	MemberRepository memberRepository;
+	@Autowired
+	BulkUpdateCheckpointRepository checkpointRepository;
+
+	List<Member> members = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		memberRepository.deleteAllInBatch(members);
+		checkpointRepository.deleteAllInBatch();
+	}
+
+	@Test
+	public void chunkedBulkAgePlus() {
+		// given
+		members = memberRepository.saveAll(IntStream.range(0, 10)
+			.mapToObj(i -> new Member("bulk" + i, 1000 + i))
+			.collect(Collectors.toList()));
+		String jobId = UUID.randomUUID().toString();
+		List<BulkUpdateResult> progress = new ArrayList<>();
+
+		// when
+		BulkUpdateResult result = memberBulkUpdateService.bulkAgePlus(jobId, 1000, 3, 2, progress::add);
+		BulkUpdateResult rerun = memberBulkUpdateService.bulkAgePlus(jobId, 1000, 3, 2, p -> {
+		});
+
+		// then
+		assertThat(result.getUpdatedRows()).isEqualTo(10);
+		assertThat(result.isDone()).isTrue();
+		assertThat(progress).hasSize(result.getTotalChunks());
+		assertThat(rerun.getUpdatedRows()).isEqualTo(0);
+		assertThat(rerun.getSkippedChunks()).isEqualTo(rerun.getTotalChunks());
+		assertThat(memberRepository.findByUsername("bulk0").get(0).getAge()).isEqualTo(1001);
+	}
+
+	@Test
+	public void chunkSizeMustMatchOnRestart() {
+		// given
+		members = memberRepository.saveAll(List.of(new Member("bulk0", 1000)));
+		String jobId = UUID.randomUUID().toString();
+		memberBulkUpdateService.bulkAgePlus(jobId, 1000, 3, 1, p -> {
+		});
+
+		// when, then
+		assertThatThrownBy(() -> memberBulkUpdateService.bulkAgePlus(jobId, 1000, 5, 1, p -> {
+		})).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void ageMustMatchOnRestart() {
+		// given
+		members = memberRepository.saveAll(List.of(new Member("bulk0", 1000)));
+		String jobId = UUID.randomUUID().toString();
+		memberBulkUpdateService.bulkAgePlus(jobId, 1000, 3, 1, p -> {
+		});
+
+		// when, then
+		assertThatThrownBy(() -> memberBulkUpdateService.bulkAgePlus(jobId, 2000, 3, 1, p -> {
+		})).isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("different age");
+	}
+
+	@Test
+	public void parallelismIsBoundedByPoolSize() {
+		assertThatThrownBy(() -> memberBulkUpdateService.bulkAgePlus(UUID.randomUUID().toString(), 1000, 3, 500, p -> {
+		})).isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("parallelism");
+	}
+}
@@ -0,0 +1,97 @@
+package study.datajpa.service;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 서비스가 여는 읽기 전용 트랜잭션을 그대로 쓰도록 테스트 트랜잭션으로 감싸지 않는다.
+ */
+@SpringBootTest
+class MemberExportServiceTest {
+
+	@Autowired
+	MemberExportService memberExportService;
+	@Autowired
+	MemberRepository memberRepository;
+	@Autowired
+	EntityManagerFactory emf;
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Test
+	public void writeNdjsonWritesOneLinePerMember() throws Exception {
+		// given
+		long members = memberRepository.count();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		// when
+		long written = memberExportService.writeNdjson(out);
+
+		// then
+		assertThat(written).isEqualTo(members);
+		assertThat(out.toString(UTF_8).lines()).hasSize(Math.toIntExact(members));
+	}
+
+	@Test
+	public void streamMemberDtoAppliesHints() {
+		// given
+		List<org.hibernate.query.Query<?>> queries = new ArrayList<>();
+
+		// when
+		Object[] options = transactionTemplate.execute(status -> {
+			// 리포지토리가 만드는 Query 를 잡기 위해 현재 트랜잭션의 EntityManager 를 잠시 바꿔 끼운다.
+			EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.unbindResource(emf);
+			EntityManagerHolder recording = new EntityManagerHolder(recording(holder.getEntityManager(), queries));
+			recording.setSynchronizedWithTransaction(true);
+			TransactionSynchronizationManager.bindResource(emf, recording);
+			try (Stream<MemberDto> members = memberRepository.streamMemberDto()) {
+				members.findFirst();
+				assertThat(queries).hasSize(1);
+				return new Object[] {queries.get(0).getFetchSize(), queries.get(0).isReadOnly()};
+			} finally {
+				TransactionSynchronizationManager.unbindResource(emf);
+				TransactionSynchronizationManager.bindResource(emf, holder);
+			}
+		});
+
+		// then
+		assertThat(options).containsExactly(500, true);
+	}
+
+	private static EntityManager recording(EntityManager target, List<org.hibernate.query.Query<?>> queries) {
+		return (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+			new Class<?>[] {EntityManager.class}, (proxy, method, args) -> {
+				Object result;
+				try {
+					result = method.invoke(target, args);
+				} catch (InvocationTargetException e) {
+					throw e.getCause();
+				}
+				if (result instanceof Query) {
+					queries.add(((Query) result).unwrap(org.hibernate.query.Query.class));
+				}
+				return result;
+			});
+	}
+}
@@ -0,0 +1,109 @@
+package study.datajpa.service;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import study.datajpa.dto.ImportResult;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+/**
+ * 청크마다 실제로 커밋되는지 보려면 테스트 트랜잭션으로 감싸면 안 되므로, 직접 만든 데이터를 지운다.
+ */
+@SpringBootTest(properties = "datajpa.import.batch-size=2")
+class MemberImportServiceTest {
+
+	@Autowired
+	MemberImportService memberImportService;
+	@Autowired
+	MemberRepository memberRepository;
+	@Autowired
+	TeamRepository teamRepository;
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@AfterEach
+	public void cleanUp() {
+		transactionTemplate.executeWithoutResult(status -> {
+			memberRepository.findAll().stream()
+				.filter(m -> m.getUsername() != null && m.getUsername().startsWith("import"))
+				.forEach(memberRepository::delete);
+			teamRepository.findAll().stream()
+				.filter(t -> t.getName() != null && t.getName().startsWith("importTeam"))
+				.forEach(teamRepository::delete);
+		});
+	}
+
+	@Test
+	public void importCsv() throws Exception {
+		// given
+		String csv = "username,age,teamName\n"
+			+ "import1,10,importTeamA\n"
+			+ "import2,20,importTeamB\n"
+			+ "import3,30,importTeamA\n";
+
+		// when
+		ImportResult result = memberImportService.importCsv(new ByteArrayInputStream(csv.getBytes(UTF_8)));
+
+		// then
+		assertThat(result.getImported()).isEqualTo(3);
+		assertThat(result.getTeams()).isEqualTo(2);
+		String teamName = transactionTemplate.execute(status -> {
+			List<Member> members = memberRepository.findByUsername("import3");
+			return members.get(0).getTeam().getName();
+		});
+		assertThat(teamName).isEqualTo("importTeamA");
+	}
+
+	@Test
+	public void importNdjson() throws Exception {
+		// given
+		String ndjson = "{\"username\":\"import1\",\"age\":10}\n"
+			+ "{\"username\":\"import2\",\"age\":20,\"teamName\":\"importTeamA\"}\n";
+
+		// when
+		ImportResult result = memberImportService.importNdjson(new ByteArrayInputStream(ndjson.getBytes(UTF_8)));
+
+		// then
+		assertThat(result.getImported()).isEqualTo(2);
+		assertThat(memberRepository.findByUsername("import2").get(0).getAge()).isEqualTo(20);
+	}
+
+	@Test
+	public void invalidRowKeepsCommittedChunks() {
+		// given
+		String csv = "import1,10\n"
+			+ "import2,20\n"
+			+ "import3,30\n"
+			+ "import4,ten\n";
+
+		// when
+		assertThatThrownBy(() -> memberImportService.importCsv(new ByteArrayInputStream(csv.getBytes(UTF_8))))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("line 4")
+			.hasMessageContaining("2 rows already imported");
+
+		// then
+		assertThat(memberRepository.findByUsername("import2")).hasSize(1);
+		assertThat(memberRepository.findByUsername("import3")).isEmpty();
+	}
+
+	@Test
+	public void invalidRow() {
+		String csv = "import1,ten\n";
+
+		assertThatThrownBy(() -> memberImportService.importCsv(new ByteArrayInputStream(csv.getBytes(UTF_8))))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("line 1");
+	}
+}
@@ -0,0 +1,33 @@
+package study.datajpa.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import study.datajpa.repository.MemberRepository;
+
+@SpringBootTest
+@Transactional
+class MemberSeederTest {
+
+	@Autowired
+	MemberSeeder memberSeeder;
+	@Autowired
+	MemberRepository memberRepository;
+
+	@Test
+	public void seedsOnlyEmptyTable() {
+		// given
+		long seeded = memberRepository.count();
+
+		// when
+		memberSeeder.seed();
+
+		// then
+		assertThat(memberRepository.findByUsername("user0")).isNotEmpty();
+		assertThat(memberRepository.count()).isEqualTo(seeded);
+	}
+}
@@ -0,0 +1,88 @@
+package study.datajpa.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 여러 스레드가 각자 트랜잭션을 커밋해야 하므로 테스트 트랜잭션 없이 실행하고 직접 정리한다.
+ */
+@SpringBootTest
+class MemberServiceTest {
+
+	static final int THREADS = 4;
+	static final int INCREMENTS = 5;
+
+	@Autowired
+	MemberService memberService;
+	@Autowired
+	MemberRepository memberRepository;
+
+	Member member;
+
+	@AfterEach
+	void cleanUp() {
+		memberRepository.deleteById(member.getId());
+	}
+
+	@Test
+	public void increaseAgeRetriesOnConflict() throws Exception {
+		// given
+		member = memberRepository.save(new Member("optimistic", 2000));
+
+		// when
+		runConcurrently(memberService::increaseAge);
+
+		// then
+		Member found = memberRepository.findById(member.getId()).orElseThrow();
+		assertThat(found.getAge()).isEqualTo(2000 + THREADS * INCREMENTS);
+		assertThat(found.getVersion()).isEqualTo(THREADS * INCREMENTS);
+	}
+
+	@Test
+	public void increaseAgePessimistic() throws Exception {
+		// given
+		member = memberRepository.save(new Member("pessimistic", 3000));
+
+		// when
+		runConcurrently(memberService::increaseAgePessimistic);
+
+		// then
+		Member found = memberRepository.findById(member.getId()).orElseThrow();
+		assertThat(found.getAge()).isEqualTo(3000 + THREADS * INCREMENTS);
+	}
+
+	private void runConcurrently(LongConsumer increase) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Callable<Void>> tasks = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				tasks.add(() -> {
+					for (int j = 0; j < INCREMENTS; j++) {
+						increase.accept(member.getId());
+					}
+					return null;
+				});
+			}
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}